@@ -1,24 +1,33 @@
 package cabsObjectRepo;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.time.Duration;
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import components.Autocomplete;
+import components.DatePicker;
+import components.TimePicker;
 import utilities.ExcelWrite;
+import utilities.Fare;
+import utilities.FareAggregator;
+import utilities.ResultExtractor;
+import utilities.SmartLocatorFactory;
+import utilities.SmartWait;
+import utilities.VehicleClass;
+import utilities.WaitFor;
+import utilities.WaitFor.Condition;
 
 /**
  * Airport transfer page object class.
@@ -26,6 +35,27 @@ import utilities.ExcelWrite;
  */
 public class Airport {
     WebDriver driver;
+    SmartWait wait;
+    DatePicker calendar;
+    Autocomplete suggestions;
+    TimePicker clock;
+
+    /** Format of the travel date in the test data, e.g. 17/Jul/2025 */
+    static final DateTimeFormatter DATE_FORMAT = new DateTimeFormatterBuilder().parseCaseInsensitive()
+            .appendPattern("dd/MMM/yyyy").toFormatter(Locale.ENGLISH);
+
+    /** Sedan filter, which is only offered when sedans are available */
+    static final By SEDAN_FILTER = By.xpath("//div[contains(@class,'chk-tcnt')]/span[text()=' sedan ']");
+
+    /** Cab result list, rendered together with the filters after a search */
+    static final By RESULTS = By.xpath("//div[@class='_listflx']");
+
+    /** Cab names and prices of the result list, extracted in one script call */
+    static final Map<String, String> RESULT_COLUMNS = new LinkedHashMap<>();
+    static {
+        RESULT_COLUMNS.put("name", "//div[@class='_listflx']//div[@class='list-dtl']/div[@class='_pro_ttl']");
+        RESULT_COLUMNS.put("price", "//div[@class='_listflx']//div[@class='nw_price']/div[not(contains(@class,'red'))]");
+    }
 
     /**
      * Constructor for initializing web elements on the Airport page.
@@ -34,57 +64,45 @@ public class Airport {
      */
     public Airport(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new SmartWait(driver);
+        this.calendar = DatePicker.jQueryUi(driver, "Airport.calendar");
+        this.suggestions = new Autocomplete(driver, "Airport.suggestions", "//div[@class='auto_sugg_tttl']");
+        this.clock = TimePicker.pickup(driver, "Airport.time");
+        SmartLocatorFactory.initElements(driver, this);
     }
 
     // Web Elements
 
-    @FindBy(xpath = "//*[@id='airportdiv']")
+    @FindBy(id = "airportdiv")
     WebElement airportBox;
 
-    @FindBy(xpath = "//*[@id='pickup']")
+    @FindBy(id = "pickup")
     WebElement pickupEle;
 
-    @FindBy(xpath = "//*[@id='drop']")
+    @FindBy(id = "drop")
     WebElement dropVal;
 
-    @FindBy(xpath = "//*[@id='hrlysrc']")
+    @FindBy(id = "hrlysrc")
     WebElement srcClick;
 
-    @FindBy(xpath = "//*[@id='a_FromSector_show']")
-    static WebElement srcTxt;
+    @FindBy(id = "a_FromSector_show")
+    WebElement srcTxt;
 
-    @FindBy(xpath = "//*[@id='to']")
+    @FindBy(id = "to")
     WebElement destClick;
 
-    @FindBy(xpath = "//*[@id='a_ToSector_show']")
+    @FindBy(id = "a_ToSector_show")
     WebElement destTxt;
 
-    @FindBy(xpath = "//div[@id='pickCalender']//input[@id='datepicker']")
+    @FindBy(css = "div#pickCalender input#datepicker")
     WebElement calIcon;
 
-    @FindBy(xpath = "//label[@for='am']")
-    WebElement amSelector;
-
-    @FindBy(xpath = "//label[@for='pm']")
-    WebElement pmSelector;
-
-    @FindBy(xpath = "//div[@onclick='Done()']")
-    WebElement doneBtn;
-
     @FindBy(xpath = "//div[@id='CommonSearch']//div[text()='SEARCH']")
     WebElement searchBtn;
 
-    @FindBy(xpath = "//div[@class='_listflx']//div[@class='list-dtl']/div[@class='_pro_ttl']")
-    List<WebElement> cabNamesList;
-
-    @FindBy(xpath = "//div[@class='_listflx']//div[@class='nw_price']/div[not(contains(@class,'red'))]")
-    List<WebElement> priceNamesList;
-
-    @FindBy(xpath = "//div[contains(@class,'chk-tcnt')]/span[text()=' sedan ']")
-    WebElement sedanChkBox;
-
-    @FindBy(xpath = "//div[@class='_listflx']//div[@class='nw_price']/div")
+    /** First fare shown; the struck-through "red" price is left out as in RESULT_COLUMNS */
+    @WaitFor(Condition.VISIBLE)
+    @FindBy(css = "div[class='_listflx'] div[class='nw_price'] > div:not([class*='red'])")
     WebElement priceVal;
 
     // Action Methods
@@ -115,39 +133,7 @@ public class Airport {
      * @param sourceVal Desired source value
      */
     public void selectSrcVal(String sourceVal) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        while (true) {
-            try {
-                wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(By.xpath("//div[@class='auto_sugg_tttl']")));
-                List<WebElement> suggestions = driver.findElements(By.xpath("//div[@class='auto_sugg_tttl']"));
-
-                WebElement bestMatch = null;
-                int shortestLength = Integer.MAX_VALUE;
-                String targetText = sourceVal.trim().toLowerCase();
-
-                for (WebElement s : suggestions) {
-                    String suggestionText = s.getText().trim().toLowerCase();
-                    if (suggestionText.equals(targetText)) {
-                        bestMatch = s;
-                        break;
-                    }
-                    if (suggestionText.startsWith(targetText) || suggestionText.contains(targetText)) {
-                        if (suggestionText.length() < shortestLength) {
-                            bestMatch = s;
-                            shortestLength = suggestionText.length();
-                        }
-                    }
-                }
-                if (bestMatch != null) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", bestMatch);
-                    wait.until(ExpectedConditions.elementToBeClickable(bestMatch));
-                    bestMatch.click();
-                }
-                break;
-            } catch (StaleElementReferenceException e) {
-                // Retry loop
-            }
-        }
+        suggestions.pick(sourceVal);
     }
 
     public void clickDestination() {
@@ -159,44 +145,12 @@ public class Airport {
     }
 
     /**
-     * Selects destination from suggestions using similarity and length heuristics.
+     * Selects destination from auto-suggestions based on closest match.
      * 
      * @param destVal Desired destination value
      */
     public void selectDestVal(String destVal) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        while (true) {
-            try {
-                wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(By.xpath("//div[@class='auto_sugg_tttl']")));
-                List<WebElement> suggestions = driver.findElements(By.xpath("//div[@class='auto_sugg_tttl']"));
-
-                WebElement bestMatch = null;
-                int shortestLength = Integer.MAX_VALUE;
-                String targetText = destVal.trim().toLowerCase();
-
-                for (WebElement s : suggestions) {
-                    String suggestionText = s.getText().trim().toLowerCase();
-                    if (suggestionText.equals(targetText)) {
-                        bestMatch = s;
-                        break;
-                    }
-                    if (suggestionText.startsWith(targetText) || suggestionText.contains(targetText)) {
-                        if (suggestionText.length() < shortestLength) {
-                            bestMatch = s;
-                            shortestLength = suggestionText.length();
-                        }
-                    }
-                }
-                if (bestMatch != null) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", bestMatch);
-                    wait.until(ExpectedConditions.elementToBeClickable(bestMatch));
-                    bestMatch.click();
-                }
-                break;
-            } catch (StaleElementReferenceException e) {
-                // Retry loop
-            }
-        }
+        suggestions.pick(destVal);
     }
 
     public void clickOnCalendar() {
@@ -209,40 +163,7 @@ public class Airport {
      * @param date Date string in format dd/MMM/yyyy (e.g., "17/Jul/2025")
      */
     public void selectDate(String date) {
-        Calendar cal = Calendar.getInstance();
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("dd/MMM/yyyy");
-            sdf.setLenient(false);
-            Date formattedDate = sdf.parse(date);
-            cal.setTime(formattedDate);
-
-            int month = cal.get(Calendar.MONTH);
-            int year = cal.get(Calendar.YEAR);
-            int day = cal.get(Calendar.DAY_OF_MONTH);
-
-            String monYearText = driver.findElement(By.className("ui-datepicker-title")).getText();
-            SimpleDateFormat currSdf = new SimpleDateFormat("MMM yyyy");
-            Date currFDate = currSdf.parse(monYearText);
-            cal.setTime(currFDate);
-
-            int currMonth = cal.get(Calendar.MONTH);
-            int currYear = cal.get(Calendar.YEAR);
-
-            while (currMonth < month || currYear < year) {
-                driver.findElement(By.xpath("//*[contains(@class,'next') and @title='Next']")).click();
-                monYearText = driver.findElement(By.className("ui-datepicker-title")).getText();
-                currFDate = currSdf.parse(monYearText);
-                cal.setTime(currFDate);
-                currMonth = cal.get(Calendar.MONTH);
-                currYear = cal.get(Calendar.YEAR);
-            }
-
-            if (currMonth == month && currYear == year) {
-                driver.findElement(By.xpath("//table[contains(@class,'calendar')]/tbody/tr/td/*[text()='" + day + "']")).click();
-            }
-        } catch (Exception e) {
-            System.out.println("Exception while selecting date: " + e.getMessage());
-        }
+        calendar.select(LocalDate.parse(date, DATE_FORMAT));
     }
 
     /**
@@ -251,24 +172,7 @@ public class Airport {
      * @param time Time string in format HH:mm AM/PM
      */
     public void selectTime(String time) {
-        String[] timeParts = time.split("[: ]");
-        String hours = timeParts[0];
-        String minutes = timeParts[1];
-        String meridian = timeParts[2];
-
-        if (hours.charAt(0) == '0') {
-            hours = Character.toString(hours.charAt(1));
-        }
-
-        if (meridian.equals("AM")) {
-            amSelector.click();
-        } else if (meridian.equals("PM")) {
-            pmSelector.click();
-        }
-
-        driver.findElement(By.xpath("//div[@id='hr']//ul//li[text()='" + hours + " Hr.']")).click();
-        driver.findElement(By.xpath("//div[@id='min']//ul//li[text()='" + minutes + " Min.']")).click();
-        doneBtn.click();
+        clock.select(time);
     }
 
     public void clickSearch() {
@@ -276,45 +180,42 @@ public class Airport {
     }
     
     /**
-     * Writes all displayed cab names to the provided Excel writer.
+     * Writes all displayed cab names and prices to the provided Excel writer.
+     * Both lists are read from the page in a single script call.
      * 
      * @param writer ExcelWrite object used to write data into Excel
-     * @return List of WebElements representing cab names
+     * @return Column name ("name", "price") to the displayed texts
      * @throws IOException if there is a failure writing to Excel
      */
-    public List<WebElement> displayNames(ExcelWrite writer) throws IOException {
-        int row = 1;
-        writer.setCellValue(0, 0, "Cab Names");
-        writer.setCellValue(0, 1, "Cab Prices");
-        Assert.assertTrue(cabNamesList.size() > 0, "No cab names were displayed.");
-        for (WebElement ns : cabNamesList) {
-            writer.setCellValue(row++, 0, ns.getText());
+    public Map<String, List<String>> displayNamesAndPrices(ExcelWrite writer) throws IOException {
+        wait.present("Airport.results", RESULTS);
+        Map<String, List<String>> columns = ResultExtractor.extractColumns(driver, RESULT_COLUMNS);
+        List<String> names = columns.get("name");
+        List<String> prices = columns.get("price");
+
+        Assert.assertTrue(names.size() > 0, "No cab names were displayed.");
+        Assert.assertTrue(prices.size() > 0, "No cab prices were displayed.");
+        // Rows are streamed, so each row is written whole, in order
+        for (int i = 0; i < Math.max(names.size(), prices.size()); i++) {
+            writer.writeRow(i + 1, i < names.size() ? names.get(i) : "", i < prices.size() ? prices.get(i) : "");
         }
-        return cabNamesList;
-    }
-
-    /**
-     * Writes all displayed cab prices to the provided Excel writer.
-     * 
-     * @param writer ExcelWrite object used to write data into Excel
-     * @return List of WebElements representing cab prices
-     * @throws IOException if there is a failure writing to Excel
-     */
-    public List<WebElement> displayPrices(ExcelWrite writer) throws IOException {
-        int rowIndex = 1;
-        Assert.assertTrue(priceNamesList.size() > 0, "No cab prices were displayed.");
-        for (WebElement ps : priceNamesList) {
-            writer.setCellValue(rowIndex++, 1, ps.getText());
+        FareAggregator fares = FareAggregator.run();
+        for (int i = 0; i < Math.min(names.size(), prices.size()); i++) {
+            fares.add("Airport " + VehicleClass.of(names.get(i)), prices.get(i));
         }
-        return priceNamesList;
+        return columns;
     }
 
     /**
      * Clicks the Sedan checkbox to filter results.
-     * If the checkbox is unavailable, test will fail with a descriptive error.
+     * Once the results have loaded, the checkbox only gets a short grace period
+     * since it is legitimately absent when no sedans are offered; the test then
+     * fails with a descriptive error.
      */
     public void clickOnSedanChk() {
-        if (sedanChkBox != null && sedanChkBox.isDisplayed() && sedanChkBox.isEnabled()) {
+        wait.present("Airport.results", RESULTS);
+        WebElement sedanChkBox = wait.optional("Airport.sedanChkBox", SEDAN_FILTER, Duration.ofSeconds(3));
+        if (sedanChkBox != null && sedanChkBox.isEnabled()) {
             sedanChkBox.click();
         } else {
             Assert.fail("❌ Sedan checkbox is not available to click!");
@@ -325,14 +226,17 @@ public class Airport {
      * Retrieves the lowest sedan price and logs it to the Excel sheet.
      * 
      * @param writer ExcelWrite object used to write data into Excel
-     * @return String representing the least Sedan price
+     * @return Least Sedan price
      * @throws IOException if there is a failure writing to Excel
      */
-    public String displayPrice(ExcelWrite writer) throws IOException {
-        writer.setCellValue(0, 2, "Least Sedan Price");
-        Assert.assertNotNull(priceVal.getText(), "Sedan price is null");
-        writer.setCellValue(1, 2, priceVal.getText());
-        return priceVal.getText();
+    public Fare displayPrice(ExcelWrite writer) throws IOException {
+        String text = priceVal.getText();
+        long paise = Fare.parsePaise(text);
+        Assert.assertTrue(paise != Fare.NO_FARE, "Sedan price is not a fare: " + text);
+        Fare fare = Fare.ofPaise(paise);
+        FareAggregator.run().add("Airport " + VehicleClass.SEDAN, fare);
+        writer.setCellValue(1, 2, fare.toString());
+        return fare;
     }
 }
 
@@ -1,19 +1,29 @@
 package cabsObjectRepo;
 
-import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
 import java.util.List;
+import java.util.Locale;
 
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import components.Autocomplete;
+import components.DatePicker;
+import components.TimePicker;
+import utilities.Fare;
+import utilities.FareAggregator;
+import utilities.SmartLocatorFactory;
+import utilities.SmartWait;
+import utilities.VehicleClass;
+import utilities.WaitFor;
+import utilities.WaitFor.Condition;
+
 /**
  * Page Object Model for Hourly Rental booking.
  * Allows interaction with rental menus, city selection, date/time pickers,
@@ -21,9 +31,16 @@ import org.testng.Assert;
  */
 public class Hourly {
     WebDriver driver;
-    WebDriverWait wait;
+    SmartWait wait;
     JavascriptExecutor js;
     Actions actions;
+    DatePicker calendar;
+    Autocomplete citySuggestions;
+    TimePicker clock;
+
+    /** Day, full month name and year of the rental date, e.g. 17 July 2025 */
+    static final DateTimeFormatter DATE_FORMAT = new DateTimeFormatterBuilder().parseCaseInsensitive()
+            .appendPattern("d MMMM yyyy").toFormatter(Locale.ENGLISH);
 
     /**
      * Initializes the Hourly rental page elements and utilities.
@@ -32,79 +49,53 @@ public class Hourly {
      */
     public Hourly(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        SmartLocatorFactory.initElements(driver, this);
+        wait = new SmartWait(driver);
         js = (JavascriptExecutor) driver;
         actions = new Actions(driver);
+        calendar = DatePicker.jQueryUi(driver, "Hourly.calendar");
+        citySuggestions = new Autocomplete(driver, "Hourly.city", "//div[@class='auto_sugg_tttl']");
+        clock = TimePicker.pickup(driver, "Hourly.time");
     }
 
     // Cab menu and rental option
-    @FindBy(xpath = "//span[@class='meuicowidth cabmenuico']")
+    @FindBy(css = "span[class='meuicowidth cabmenuico']")
     WebElement cabMenu;
 
     @FindBy(id = "li3")
     WebElement hourlyRental;
 
     // City selection elements
-    @FindBy(xpath = "//div[@id='sourceName']")
+    @FindBy(css = "div#sourceName")
     WebElement sourceBox;
 
-    @FindBy(xpath = "//input[@id='a_FromSector_show']")
+    @FindBy(css = "input#a_FromSector_show")
     WebElement sourceInput;
 
     @FindBy(xpath = "//div[@class='auto_sugg' and @id='StartCity'/ul/li]")
     WebElement autosuggestionDiv;
 
-    @FindBy(xpath = "//div[@class='auto_sugg_tttl']")
-    List<WebElement> suggestions;
-
     // Calendar elements
-    @FindBy(xpath = "//div[@class='box-dt']")
+    @FindBy(css = "div[class='box-dt']")
     WebElement calendarField;
 
-    @FindBy(xpath = "//span[@class='ui-datepicker-month']")
-    WebElement calendarMonth;
-
-    @FindBy(xpath = "//span[@class='ui-datepicker-year']")
-    WebElement calendarYear;
-
-    @FindBy(xpath = "//a[@data-handler='next']")
-    WebElement nextMonthBtn;
-
-    @FindBy(xpath = "//a[@class='ui-state-default']")
-    List<WebElement> allDates;
-
-    // Time selectors
-    @FindBy(xpath = "//label[@for='am']")
-    WebElement AM;
-
-    @FindBy(xpath = "//label[@for='pm']")
-    WebElement PM;
-
-    @FindBy(xpath = "//div[@id='hr']/ul/li")
-    List<WebElement> hourOptions;
-
-    @FindBy(xpath = "//div[@id='min']/ul/li")
-    List<WebElement> minuteOptions;
-
-    @FindBy(xpath = "//div[@class='done_d' and @onclick='Done()']")
-    WebElement doneBtn;
-
     // Rental duration selection
     @FindBy(xpath = "//div[@id='rtimes']/parent::div[@id='timePicker']")
     WebElement rentalTimeBox;
 
-    @FindBy(xpath = "//div[@id='addclsForRent']/ul/li")
+    @FindBy(css = "div#addclsForRent > ul > li")
     List<WebElement> rentHoursList;
 
     // Search and filtering
-    @FindBy(xpath = "//div[@onclick='GetList()']")
+    @FindBy(css = "div[onclick='GetList()']")
     WebElement searchCabsBtn;
 
+    @WaitFor(Condition.VISIBLE)
     @FindBy(xpath = "//div[contains(@class,'chk-tcnt')]/span[text()=' suv ']")
     WebElement suvFilter;
 
-    @FindBy(xpath = "//div[@class='cabFare _f25 ']")
+    @WaitFor(Condition.VISIBLE)
+    @FindBy(css = "div[class='cabFare _f25 ']")
     WebElement lowestFare;
 
     /**
@@ -127,72 +118,17 @@ public class Hourly {
     public void searchCab(String city, String userDay, String userMonth, String userYear, String timeRaw,
             String rentHours) {
 
-        WebElement input = wait.until(ExpectedConditions.elementToBeClickable(sourceBox));
+        WebElement input = wait.clickable("Hourly.sourceBox", sourceBox);
         input.click();
 
-        WebElement inputSearch = wait.until(ExpectedConditions.elementToBeClickable(sourceInput));
+        WebElement inputSearch = wait.clickable("Hourly.sourceInput", sourceInput);
         inputSearch.sendKeys(city);
-
-        while (true) {
-            try {
-                wait.until(ExpectedConditions.visibilityOfAllElements(suggestions));
-                break;
-            } catch (StaleElementReferenceException e) {
-                continue;
-            }
-        }
-
-        for (WebElement s : suggestions) {
-            if (s.getText().equalsIgnoreCase(city)) {
-                s.click();
-                break;
-            }
-        }
+        citySuggestions.pick(city);
 
         calendarField.click();
+        calendar.select(LocalDate.parse(userDay + " " + userMonth + " " + userYear, DATE_FORMAT));
 
-        while (true) {
-            if (!calendarMonth.getText().equalsIgnoreCase(userMonth)
-                    || !calendarYear.getText().equalsIgnoreCase(userYear)) {
-                nextMonthBtn.click();
-            } else {
-                break;
-            }
-        }
-
-        for (WebElement day : allDates) {
-            if (day.getText().equalsIgnoreCase(userDay)) {
-                day.click();
-                break;
-            }
-        }
-
-        String[] timeParts = timeRaw.split(" ");
-        String[] hourMin = timeParts[0].split(":");
-        String hr = hourMin[0];
-        String min = hourMin[1];
-
-        if (timeParts[1].equalsIgnoreCase("AM")) {
-            AM.click();
-        } else {
-            PM.click();
-        }
-
-        for (WebElement h : hourOptions) {
-            if (h.getText().split(" ")[0].equalsIgnoreCase(hr)) {
-                js.executeScript("arguments[0].click()", h);
-                break;
-            }
-        }
-
-        for (WebElement m : minuteOptions) {
-            if (m.getText().split(" ")[0].equalsIgnoreCase(min)) {
-                js.executeScript("arguments[0].click()", m);
-                break;
-            }
-        }
-
-        doneBtn.click();
+        clock.select(timeRaw);
         rentalTimeBox.click();
 
         for (WebElement r : rentHoursList) {
@@ -215,13 +151,17 @@ public class Hourly {
     }
 
     /**
-     * Fetches the lowest fare from displayed SUV options.
+     * Fetches the lowest fare from displayed SUV options and adds it to the
+     * run's fare statistics.
      *
-     * @return String indicating fare value
+     * @return Lowest SUV fare
      */
-    public String getLeastFare() {
-        Assert.assertNotNull(lowestFare.getText(), "SUV lowest price is null");
-        String fare = lowestFare.getText();
-        return "Lowest fare found: " + fare;
+    public Fare getLeastFare() {
+        String text = lowestFare.getText();
+        long paise = Fare.parsePaise(text);
+        Assert.assertTrue(paise != Fare.NO_FARE, "SUV lowest price is not a fare: " + text);
+        Fare fare = Fare.ofPaise(paise);
+        FareAggregator.run().add("Hourly " + VehicleClass.SUV, fare);
+        return fare;
     }
 }
@@ -1,23 +1,29 @@
 package cabsObjectRepo;
 
-import java.time.Duration;
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import components.Autocomplete;
+import components.DatePicker;
+import components.TimePicker;
+import utilities.FareAggregator;
 import utilities.JsonDataWriter;
+import utilities.ResultExtractor;
+import utilities.ResultRow;
+import utilities.SmartLocatorFactory;
+import utilities.SmartWait;
+import utilities.VehicleClass;
+import utilities.WaitFor;
+import utilities.WaitFor.Condition;
 
 /**
  * Page Object Model for Outstation Cab Booking. Handles user interaction for
@@ -26,7 +32,15 @@ import utilities.JsonDataWriter;
  */
 public class Outstation {
 	WebDriver driver;
-	WebDriverWait wait;
+	SmartWait wait;
+	DatePicker calendar;
+	Autocomplete fromSuggestions;
+	Autocomplete toSuggestions;
+	TimePicker pickupClock;
+	TimePicker returnClock;
+
+	/** Format of the pickup and return dates in the test data */
+	static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
 	/**
 	 * Initializes the Outstation booking page with driver and wait configuration.
@@ -35,8 +49,13 @@ public class Outstation {
 	 */
 	public Outstation(WebDriver driver) {
 		this.driver = driver;
-		this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-		PageFactory.initElements(driver, this);
+		this.wait = new SmartWait(driver);
+		this.calendar = DatePicker.jQueryUi(driver, "Outstation.calendar");
+		this.fromSuggestions = new Autocomplete(driver, "Outstation.from", "//div[@id='StartCity']//ul//li");
+		this.toSuggestions = new Autocomplete(driver, "Outstation.to", "//div[@id='EndCity']//ul//li");
+		this.pickupClock = TimePicker.pickup(driver, "Outstation.pickupTime");
+		this.returnClock = TimePicker.returnTrip(driver, "Outstation.returnTime");
+		SmartLocatorFactory.initElements(driver, this);
 	}
 
 	// Web elements for booking workflow
@@ -65,56 +84,29 @@ public class Outstation {
 	@FindBy(id = "rdatepicker")
 	WebElement returnDate;
 
-	@FindBy(xpath = "//span[@class='ui-datepicker-month']")
-	WebElement displayedMonth;
-
-	@FindBy(xpath = "//span[@class='ui-datepicker-year']")
-	WebElement displayedYear;
-
-	@FindBy(xpath = "//span[@class='ui-icon ui-icon-circle-triangle-e']")
-	WebElement nextMonthBtn;
-
-	@FindBy(xpath = "//span[@class='ui-icon ui-icon-circle-triangle-w']")
-	WebElement prevMonthBtn;
-
-	@FindBy(xpath = "//label[@for='am']")
-	WebElement amSelectorPickup;
-
-	@FindBy(xpath = "//label[@for='pm']")
-	WebElement pmSelectorPickup;
-
-	@FindBy(xpath = "//div[@id='rap']//label[@for='ram']")
-	WebElement amSelectorReturn;
-
-	@FindBy(xpath = "//div[@id='rap']//label[@for='rpm']")
-	WebElement pmSelectorReturn;
-
-	@FindBy(xpath = "//div[@onclick='Done()']")
-	WebElement pickupDoneBtn;
-
-	@FindBy(xpath = "//div[@onclick='rDone()']")
-	WebElement returnDoneBtn;
-
-	@FindBy(xpath = "//div[@onclick='GetList()']")
+	@FindBy(css = "div[onclick='GetList()']")
 	WebElement searchBtn;
 
+	@WaitFor(Condition.VISIBLE)
 	@FindBy(xpath = "//label[3]//div[1]//span[2]")
 	WebElement suvFilter;
 
-	@FindBy(xpath = "//div[@class='blue-link']//a")
+	@WaitFor(Condition.VISIBLE)
+	@FindBy(css = "div[class='blue-link'] a")
 	WebElement options;
 
-	@FindBy(xpath = "//span[@class='close']")
+	@FindBy(css = "span[class='close']")
 	WebElement closeBtn;
 
-	@FindBy(xpath = "//div[@id='StartCity']//ul//li")
-	List<WebElement> citySuggestions_from;
-
-	@FindBy(xpath = "//div[@id='EndCity']//ul//li")
-	List<WebElement> citySuggestions_to;
+	/** Vehicle fare blocks listed under "more options" */
+	static final String VEHICLE_BLOCKS = "//label[contains(@class, 'fare')]";
 
-	@FindBy(xpath = "//label[contains(@class, 'fare')]")
-	List<WebElement> vehicleBlocks;
+	/** Name and price of a vehicle block, relative to the block */
+	static final Map<String, String> VEHICLE_FIELDS = new LinkedHashMap<>();
+	static {
+		VEHICLE_FIELDS.put("name", ".//div[contains(@class, 'checkbox-container')]/h6");
+		VEHICLE_FIELDS.put("price", ".//div[contains(@class, 'ruppes')]//h6");
+	}
 
 	/**
 	 * Switches to the outstation booking section.
@@ -131,23 +123,7 @@ public class Outstation {
 	public void fromField(String osFromCity) {
 		from.click();
 		fromCity.click();
-		fromCity.clear();
-		fromCity.sendKeys(osFromCity);
-
-		while (true) {
-			try {
-				wait.until(ExpectedConditions.visibilityOfAllElements(citySuggestions_from));
-				for (WebElement suggestion : citySuggestions_from) {
-					String text = suggestion.getText();
-					if (text.startsWith(osFromCity) && text.contains(osFromCity)) {
-						suggestion.click();
-						break;
-					}
-				}
-				break;
-			} catch (StaleElementReferenceException e) {
-			}
-		}
+		fromSuggestions.select(fromCity, osFromCity);
 	}
 
 	/**
@@ -158,23 +134,7 @@ public class Outstation {
 	public void toField(String osToCity) {
 		to.click();
 		toCity.click();
-		toCity.clear();
-		toCity.sendKeys(osToCity);
-
-		while (true) {
-			try {
-				wait.until(ExpectedConditions.visibilityOfAllElements(citySuggestions_to));
-				for (WebElement suggestion : citySuggestions_to) {
-					String text = suggestion.getText();
-					if (text.startsWith(osToCity) && text.contains(osToCity)) {
-						suggestion.click();
-						break;
-					}
-				}
-				break;
-			} catch (StaleElementReferenceException e) {
-			}
-		}
+		toSuggestions.select(toCity, osToCity);
 	}
 
 	/**
@@ -183,34 +143,8 @@ public class Outstation {
 	 * @param date Date string in dd/MM/yyyy format
 	 */
 	public void pickupDate(String date) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		LocalDate targetDate = LocalDate.parse(date, formatter);
-		String targetDay = String.valueOf(targetDate.getDayOfMonth());
-		YearMonth targetYearMonth = YearMonth.from(targetDate);
-
 		pickupDate.click();
-
-		while (true) {
-			String month = displayedMonth.getText();
-			String year = displayedYear.getText();
-
-			DateTimeFormatter monthyearFormatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
-			YearMonth displayedYearMonth = YearMonth.parse(month + " " + year, monthyearFormatter);
-
-			if (displayedYearMonth.equals(targetYearMonth)) {
-				break;
-			} else if (displayedYearMonth.isBefore(targetYearMonth)) {
-				nextMonthBtn.click();
-			} else {
-				try {
-					prevMonthBtn.click();
-				} catch (Exception e) {
-					System.out.println(e.getMessage());
-				}
-			}
-		}
-
-		driver.findElement(By.xpath("//a[normalize-space()='" + targetDay + "']")).click();
+		calendar.select(LocalDate.parse(date, DATE_FORMAT));
 	}
 
 	/**
@@ -219,35 +153,9 @@ public class Outstation {
 	 * @param date Date string in dd/MM/yyyy format
 	 */
 	public void returnDate(String date) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		LocalDate targetDate = LocalDate.parse(date, formatter);
-		String targetDay = String.valueOf(targetDate.getDayOfMonth());
-		YearMonth targetYearMonth = YearMonth.from(targetDate);
-
 		returnDateSelection.click();
 		returnDate.click();
-
-		while (true) {
-			String month = displayedMonth.getText();
-			String year = displayedYear.getText();
-
-			DateTimeFormatter monthyearFormatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
-			YearMonth displayedYearMonth = YearMonth.parse(month + " " + year, monthyearFormatter);
-
-			if (displayedYearMonth.equals(targetYearMonth)) {
-				break;
-			} else if (displayedYearMonth.isBefore(targetYearMonth)) {
-				nextMonthBtn.click();
-			} else {
-				try {
-					prevMonthBtn.click();
-				} catch (Exception e) {
-					System.out.println(e.getMessage());
-				}
-			}
-		}
-
-		driver.findElement(By.xpath("//a[normalize-space()='" + targetDay + "']")).click();
+		calendar.select(LocalDate.parse(date, DATE_FORMAT));
 	}
 
 	/**
@@ -256,20 +164,7 @@ public class Outstation {
 	 * @param time Time string in HH:mm AM/PM format
 	 */
 	public void pickupTime(String time) {
-		String[] timeParts = time.split("[: ]");
-		String hours = timeParts[0];
-		String minutes = timeParts[1];
-		String meridian = timeParts[2];
-
-		if (meridian.equals("AM")) {
-			amSelectorPickup.click();
-		} else if (meridian.equals("PM")) {
-			pmSelectorPickup.click();
-		}
-
-		driver.findElement(By.xpath("//div[@id='hr']//ul//li[normalize-space()='" + hours + " Hr.']")).click();
-		driver.findElement(By.xpath("//div[@id='min']//ul//li[normalize-space()='" + minutes + " Min.']")).click();
-		pickupDoneBtn.click();
+		pickupClock.select(time);
 	}
 
 	/**
@@ -285,20 +180,7 @@ public class Outstation {
 	 * @param time Time string in HH:mm AM/PM format
 	 */
 	public void returnTime(String time) {
-		String[] timeParts = time.split("[: ]");
-		String hours = timeParts[0];
-		String minutes = timeParts[1];
-		String meridian = timeParts[2];
-
-		if (meridian.equals("AM")) {
-			amSelectorReturn.click();
-		} else if (meridian.equals("PM")) {
-			pmSelectorReturn.click();
-		}
-
-		driver.findElement(By.xpath("//div[@id='rhr']//ul//li[normalize-space()='" + hours + " Hr.']")).click();
-		driver.findElement(By.xpath("//div[@id='rmin']//ul//li[normalize-space()='" + minutes + " Min.']")).click();
-		returnDoneBtn.click();
+		returnClock.select(time);
 	}
 
 	/**
@@ -309,12 +191,22 @@ public class Outstation {
 	}
 
 	/**
-	 * Applies SUV filter, expands options, and extracts vehicle names and prices.
-	 * Stores result data in JSON with scenario context.
+	 * Waits until the search results are shown, i.e. the SUV filter can be
+	 * clicked.
+	 */
+	public void awaitResults() {
+		wait.clickable("Outstation.suvFilter", suvFilter);
+	}
+
+	/**
+	 * Applies SUV filter, expands options, and extracts vehicle names and prices
+	 * in a single script call. Stores result data in JSON with scenario context
+	 * and logs the lowest fare of the trip.
 	 * 
 	 * @param scenario Scenario name used for JSON organization
+	 * @return Extracted vehicle rows with "name" and "price" fields
 	 */
-	public void results(String scenario) {
+	public List<ResultRow> results(String scenario) {
 		boolean chk = suvFilter.isDisplayed();
 		Assert.assertTrue(chk, "SUV checkbox not enabled");
 		suvFilter.click();
@@ -323,24 +215,27 @@ public class Outstation {
 		Assert.assertTrue(optChk, "Options link not visible");
 		options.click();
 
-		wait.until(ExpectedConditions.visibilityOfAllElements(vehicleBlocks));
-		Assert.assertTrue(vehicleBlocks.size() > 0, "No cab prices were displayed.");
-
-		for (WebElement block : vehicleBlocks) {
-			try {
-				WebElement nameElement = block
-						.findElement(By.xpath(".//div[contains(@class, 'checkbox-container')]/h6"));
-				String vehicleName = nameElement.getText().trim();
-
-				WebElement priceElement = block.findElement(By.xpath(".//div[contains(@class, 'ruppes')]//h6"));
-				String price = priceElement.getText().trim();
-
-				JsonDataWriter.writeSimpleDataWithScenario(scenario, vehicleName, price, "OutstationWrite.json");
-			} catch (Exception e) {
+		wait.visible("Outstation.vehicleBlocks", By.xpath(VEHICLE_BLOCKS));
+		List<ResultRow> rows = ResultExtractor.extractRows(driver, VEHICLE_BLOCKS, VEHICLE_FIELDS);
+		Assert.assertTrue(rows.size() > 0, "No cab prices were displayed.");
+
+		FareAggregator tripFares = new FareAggregator();
+		for (ResultRow row : rows) {
+			if (row.has("name") && row.has("price")) {
+				JsonDataWriter.writeSimpleDataWithScenario(scenario, row.get("name"), row.get("price"),
+						"OutstationWrite.json");
+				VehicleClass vehicleClass = VehicleClass.of(row.get("name"));
+				tripFares.add(vehicleClass.toString(), row.get("price"));
+				FareAggregator.run().add("Outstation " + vehicleClass, row.get("price"));
+			} else {
 				System.out.println("[Vehicle name or price not found]");
 			}
 		}
+		if (tripFares.lowest() != null) {
+			System.out.println(scenario + ": lowest fare " + tripFares.lowest() + " (" + tripFares.lowestClass() + ")");
+		}
 
 		closeBtn.click();
+		return rows;
 	}
 }
\ No newline at end of file
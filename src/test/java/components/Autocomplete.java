@@ -0,0 +1,173 @@
+package components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import utilities.SmartWait;
+import utilities.StaleRetry;
+
+/**
+ * Reusable auto-suggestion component shared by the page objects. Every visible
+ * suggestion is scored inside the browser in one script call and only the best
+ * match travels back, instead of reading each suggestion's text over the wire.
+ *
+ * Scoring is case and whitespace insensitive: an exact match beats a prefix
+ * match, which beats a match at the start of a word, which beats any other
+ * substring match; ties go to the shortest suggestion. Suggestions missing one
+ * of the required terms are skipped.
+ *
+ * The list is considered settled once an exact match shows up or two polls in a
+ * row see the same suggestions. Hits, misses and latency are counted per
+ * component name and listed by {@link #report()}.
+ */
+public class Autocomplete {
+
+	/** Scores the visible suggestions and returns the best one with a list signature */
+	private static final String SCORE_SCRIPT = "var xpath = arguments[0], required = arguments[2];"
+			+ "function norm(s) { return (s || '').replace(/\\s+/g, ' ').trim().toLowerCase(); }"
+			+ "var wanted = norm(arguments[1]), texts = [], best = null, bestText = null, bestScore = 0;"
+			+ "var snap = document.evaluate(xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+			+ "for (var i = 0; i < snap.snapshotLength; i++) {"
+			+ "  var n = snap.snapshotItem(i);"
+			+ "  if (!n.getClientRects().length) { continue; }"
+			+ "  var t = norm(n.innerText || n.textContent), ok = true;"
+			+ "  texts.push(t);"
+			+ "  for (var r = 0; r < required.length; r++) { if (t.indexOf(norm(required[r])) < 0) { ok = false; } }"
+			+ "  var at = t.indexOf(wanted), score = 0;"
+			+ "  if (!ok || at < 0) { continue; }"
+			+ "  if (t === wanted) { score = 4000; }"
+			+ "  else if (at === 0) { score = 3000; }"
+			+ "  else if (/[\\s,(\\/-]/.test(t.charAt(at - 1))) { score = 2000; }"
+			+ "  else { score = 1000; }"
+			+ "  score -= Math.min(t.length, 999);"
+			+ "  if (score > bestScore) { best = n; bestText = t; bestScore = score; }"
+			+ "}"
+			+ "return {count: texts.length, signature: texts.join('\\n'), element: best, text: bestText,"
+			+ " exact: bestText !== null && bestText === wanted};";
+
+	private static final Map<String, SuggestStats> stats = new ConcurrentHashMap<>();
+
+	private final WebDriver driver;
+	private final SmartWait wait;
+	private final String name;
+	private final String suggestionXpath;
+
+	/**
+	 * Creates an auto-suggestion component.
+	 *
+	 * @param driver          WebDriver instance
+	 * @param name            Name used for metrics and error messages (e.g.,
+	 *                        "Outstation.from")
+	 * @param suggestionXpath XPath matching every suggestion of the list
+	 */
+	public Autocomplete(WebDriver driver, String name, String suggestionXpath) {
+		this.driver = driver;
+		this.wait = new SmartWait(driver);
+		this.name = name;
+		this.suggestionXpath = suggestionXpath;
+	}
+
+	/**
+	 * Types a value into the input and picks the suggestion that best matches it.
+	 *
+	 * @param input Text box that opens the suggestion list
+	 * @param value Value to type and match
+	 */
+	public void select(WebElement input, String value) {
+		type(input, value);
+		pick(value);
+	}
+
+	/**
+	 * Clears the input and types a value into it.
+	 *
+	 * @param input Text box that opens the suggestion list
+	 * @param value Value to type
+	 */
+	public void type(WebElement input, String value) {
+		input.clear();
+		input.sendKeys(value);
+	}
+
+	/**
+	 * Waits for the suggestion list to settle and clicks the best match.
+	 *
+	 * @param wanted   Text the suggestion should equal, start with or contain
+	 * @param required Further terms the suggestion must contain (e.g., a city
+	 *                 name next to a locality)
+	 * @throws TimeoutException if no suggestion matches within the timeout; the
+	 *                          list may just not have settled yet, so the failure
+	 *                          is retried as a timing failure
+	 */
+	public void pick(String wanted, String... required) {
+		SuggestStats record = stats.computeIfAbsent(name, k -> new SuggestStats());
+		long start = System.nanoTime();
+		try {
+			StaleRetry.run(name, () -> best(wanted, required).click());
+			record.hits.increment();
+		} catch (TimeoutException e) {
+			record.misses.increment();
+			throw new TimeoutException(name + ": no suggestion matching '" + wanted + "'"
+					+ (required.length > 0 ? " with " + Arrays.toString(required) : ""), e);
+		} finally {
+			record.nanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Polls the scoring script until the list has settled on a match.
+	 */
+	@SuppressWarnings("unchecked")
+	private WebElement best(String wanted, String[] required) {
+		List<String> requiredTerms = new ArrayList<>(Arrays.asList(required));
+		String[] lastSignature = { null };
+		Map<String, Object> result = wait.until(name, d -> {
+			Map<String, Object> scored = (Map<String, Object>) ((JavascriptExecutor) d).executeScript(SCORE_SCRIPT,
+					suggestionXpath, wanted, requiredTerms);
+			if (((Number) scored.get("count")).intValue() == 0) {
+				return null;
+			}
+			String signature = (String) scored.get("signature");
+			boolean settled = Boolean.TRUE.equals(scored.get("exact")) || signature.equals(lastSignature[0]);
+			lastSignature[0] = signature;
+			return settled && scored.get("element") != null ? scored : null;
+		});
+		return (WebElement) result.get("element");
+	}
+
+	/**
+	 * Lists hits, misses and average latency per auto-suggestion component.
+	 *
+	 * @return Human readable auto-suggestion report
+	 */
+	public static String report() {
+		StringBuilder sb = new StringBuilder("Autocomplete report (name: hits, misses, avg ms)");
+		stats.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+			SuggestStats s = e.getValue();
+			long calls = s.hits.sum() + s.misses.sum();
+			long avgMs = calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(s.nanos.sum() / calls);
+			sb.append(System.lineSeparator()).append("  ").append(e.getKey()).append(": ").append(s.hits.sum())
+					.append(", ").append(s.misses.sum()).append(", ").append(avgMs);
+		});
+		return sb.toString();
+	}
+
+	/**
+	 * Counters of one auto-suggestion component.
+	 */
+	private static class SuggestStats {
+		final LongAdder hits = new LongAdder();
+		final LongAdder misses = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+	}
+}
@@ -0,0 +1,178 @@
+package components;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import utilities.LocatorTemplate;
+import utilities.Locators;
+import utilities.SmartWait;
+
+/**
+ * Reusable calendar component shared by the page objects. The month offset to
+ * the target date is worked out once from the calendar header and the calendar
+ * is moved there inside a single script call, instead of reading the header
+ * back after every "next month" click. Dates that cannot be reached (past
+ * months without a previous button, disabled navigation, more than
+ * {@link #MAX_STEPS} months away) fail immediately.
+ */
+public class DatePicker {
+
+	/** Furthest the calendar is allowed to travel from the displayed month */
+	public static final int MAX_STEPS = 36;
+
+	/**
+	 * Reads the displayed month from the header and clicks next/prev until the
+	 * target month (year * 12 + month index) is shown or no progress is made.
+	 */
+	private static final String JUMP_SCRIPT = "var title = arguments[0], next = arguments[1], prev = arguments[2],"
+			+ " target = arguments[3], maxSteps = arguments[4];"
+			+ "var months = ['jan','feb','mar','apr','may','jun','jul','aug','sep','oct','nov','dec'];"
+			+ "function node(xpath) { return xpath ? document.evaluate(xpath, document, null,"
+			+ "  XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue : null; }"
+			+ "function shown() {"
+			+ "  var t = node(title); if (!t) { return -1; }"
+			+ "  var text = t.textContent.toLowerCase(), y = text.match(/\\d{4}/), m = text.match(/[a-z]{3,}/);"
+			+ "  if (!y || !m) { return -1; }"
+			+ "  var idx = months.indexOf(m[0].substring(0, 3));"
+			+ "  return idx < 0 ? -1 : parseInt(y[0], 10) * 12 + idx; }"
+			+ "var current = shown(), steps = 0;"
+			+ "if (current < 0) { return {status: 'unreadable', shown: current, steps: 0}; }"
+			+ "while (current !== target) {"
+			+ "  if (steps >= maxSteps) { return {status: 'limit', shown: current, steps: steps}; }"
+			+ "  var button = node(current < target ? next : prev);"
+			+ "  if (!button) { return {status: 'nobutton', shown: current, steps: steps}; }"
+			+ "  button.click(); steps++;"
+			+ "  var after = shown();"
+			+ "  if (after === current) { return {status: 'stuck', shown: current, steps: steps}; }"
+			+ "  current = after; }"
+			+ "return {status: 'ok', shown: current, steps: steps};";
+
+	private final WebDriver driver;
+	private final SmartWait wait;
+	private final String name;
+	private final String titleXpath;
+	private final String nextXpath;
+	private final String prevXpath;
+	private final LocatorTemplate day;
+
+	/**
+	 * Creates a date picker for a calendar widget.
+	 *
+	 * @param driver     WebDriver instance
+	 * @param name       Name used for wait statistics and error messages
+	 * @param titleXpath XPath of the header showing the displayed month and year
+	 * @param nextXpath  XPath of the "next month" button
+	 * @param prevXpath  XPath of the "previous month" button, or null if the
+	 *                   calendar cannot go back
+	 * @param day        Locator of a selectable day cell, taking the day of month
+	 */
+	public DatePicker(WebDriver driver, String name, String titleXpath, String nextXpath, String prevXpath,
+			LocatorTemplate day) {
+		this.driver = driver;
+		this.wait = new SmartWait(driver);
+		this.name = name;
+		this.titleXpath = titleXpath;
+		this.nextXpath = nextXpath;
+		this.prevXpath = prevXpath;
+		this.day = day;
+	}
+
+	/**
+	 * Creates a date picker for the jQuery UI calendar used by the cab pages.
+	 *
+	 * @param driver WebDriver instance
+	 * @param name   Name used for wait statistics and error messages
+	 * @return DatePicker for the shared ui-datepicker widget
+	 */
+	public static DatePicker jQueryUi(WebDriver driver, String name) {
+		return new DatePicker(driver, name, "//div[contains(@class,'ui-datepicker-title')]",
+				"//a[@data-handler='next']", "//a[@data-handler='prev']", Locators.CALENDAR_DAY);
+	}
+
+	/**
+	 * Moves the open calendar to the date's month and clicks the day.
+	 *
+	 * @param date Date to select
+	 */
+	public void select(LocalDate date) {
+		showMonth(YearMonth.from(date));
+		clickDay(date.getDayOfMonth());
+	}
+
+	/**
+	 * Moves the open calendar to the given month.
+	 *
+	 * @param target Month to display
+	 * @throws IllegalArgumentException if the calendar cannot reach the month
+	 */
+	public void showMonth(YearMonth target) {
+		wait.visible(name + ".title", By.xpath(titleXpath));
+		int targetIndex = target.getYear() * 12 + target.getMonthValue() - 1;
+		int stepsLeft = MAX_STEPS;
+
+		while (true) {
+			Map<String, Object> result = jump(targetIndex, stepsLeft);
+			String status = (String) result.get("status");
+			int shown = ((Number) result.get("shown")).intValue();
+			stepsLeft -= ((Number) result.get("steps")).intValue();
+
+			switch (status) {
+			case "ok":
+				return;
+			case "unreadable":
+				throw new IllegalStateException(name + ": calendar header could not be read");
+			case "stuck":
+				// The calendar may render asynchronously; give it a moment to move
+				if (waitForMove(shown) && stepsLeft > 0) {
+					continue;
+				}
+				throw cannotReach(target, shown, status);
+			default:
+				throw cannotReach(target, shown, status);
+			}
+		}
+	}
+
+	/** Error for a month the calendar cannot be moved to */
+	private IllegalArgumentException cannotReach(YearMonth target, int shown, String status) {
+		return new IllegalArgumentException(name + ": cannot reach " + target + " from "
+				+ YearMonth.of(shown / 12, shown % 12 + 1) + " (" + status + ")");
+	}
+
+	/**
+	 * Clicks a day of the displayed month.
+	 *
+	 * @param dayOfMonth Day of month
+	 */
+	public void clickDay(int dayOfMonth) {
+		wait.clickable(name + ".day", day.by(dayOfMonth)).click();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> jump(int targetIndex, int maxSteps) {
+		return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(JUMP_SCRIPT, titleXpath, nextXpath,
+				prevXpath, targetIndex, maxSteps);
+	}
+
+	/**
+	 * Waits briefly for the header to show a different month than before.
+	 *
+	 * @return true if the calendar moved
+	 */
+	private boolean waitForMove(int shown) {
+		try {
+			new SmartWait(driver, Duration.ofSeconds(2)).until(name + ".move",
+					d -> ((Number) jump(shown, 0).get("shown")).intValue() != shown);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		}
+	}
+}
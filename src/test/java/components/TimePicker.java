@@ -0,0 +1,128 @@
+package components;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+import utilities.SmartWait;
+
+/**
+ * Reusable time-picker component for the cab pages. The AM/PM toggle, hour,
+ * minute and Done cells are resolved inside the browser in one script call
+ * (hours and minutes are matched numerically, so "09" finds "9 Hr."), and the
+ * whole selection is then sent as one W3C Actions sequence.
+ *
+ * If the browser rejects the pointer sequence (e.g., a cell scrolled out of
+ * its list), the same cells are clicked from a single script instead.
+ */
+public class TimePicker {
+
+	private static final Logger log = LogManager.getLogger(TimePicker.class);
+
+	/** Finds the first visible meridian, hour, minute and Done cells; null while any is missing */
+	private static final String RESOLVE_SCRIPT = "var sel = arguments[0], hour = arguments[1], minute = arguments[2],"
+			+ " meridian = arguments[3];"
+			+ "function visible(n) { return n.getClientRects().length > 0; }"
+			+ "function first(css) { var all = document.querySelectorAll(css);"
+			+ "  for (var i = 0; i < all.length; i++) { if (visible(all[i])) { return all[i]; } } return null; }"
+			+ "function item(css, value) { var all = document.querySelectorAll(css);"
+			+ "  for (var i = 0; i < all.length; i++) {"
+			+ "    if (visible(all[i]) && parseInt(all[i].textContent.trim(), 10) === value) { return all[i]; } }"
+			+ "  return null; }"
+			+ "var cells = [];"
+			+ "if (meridian) { cells.push(first(meridian === 'AM' ? sel.am : sel.pm)); }"
+			+ "cells.push(item(sel.hours, hour), item(sel.minutes, minute), first(sel.done));"
+			+ "for (var c = 0; c < cells.length; c++) {"
+			+ "  if (!cells[c]) { return null; }"
+			+ "  cells[c].scrollIntoView({block: 'nearest'}); }"
+			+ "return cells;";
+
+	/** Clicks the resolved cells in order */
+	private static final String CLICK_SCRIPT = "for (var i = 0; i < arguments[0].length; i++) { arguments[0][i].click(); }";
+
+	private final WebDriver driver;
+	private final SmartWait wait;
+	private final String name;
+	private final Map<String, String> selectors;
+
+	/**
+	 * Creates a time picker from the CSS selectors of its cells.
+	 *
+	 * @param driver  WebDriver instance
+	 * @param name    Name used for wait statistics
+	 * @param am      AM toggle
+	 * @param pm      PM toggle
+	 * @param hours   Every hour entry (e.g., "10 Hr.")
+	 * @param minutes Every minute entry (e.g., "30 Min.")
+	 * @param done    Done button
+	 */
+	public TimePicker(WebDriver driver, String name, String am, String pm, String hours, String minutes,
+			String done) {
+		this.driver = driver;
+		this.wait = new SmartWait(driver);
+		this.name = name;
+		this.selectors = Map.of("am", am, "pm", pm, "hours", hours, "minutes", minutes, "done", done);
+	}
+
+	/**
+	 * Creates the pickup time picker shared by the cab pages.
+	 *
+	 * @param driver WebDriver instance
+	 * @param name   Name used for wait statistics
+	 * @return TimePicker for the pickup time
+	 */
+	public static TimePicker pickup(WebDriver driver, String name) {
+		return new TimePicker(driver, name, "label[for='am']", "label[for='pm']", "div#hr ul li", "div#min ul li",
+				"div[onclick='Done()']");
+	}
+
+	/**
+	 * Creates the return time picker of the outstation round trip.
+	 *
+	 * @param driver WebDriver instance
+	 * @param name   Name used for wait statistics
+	 * @return TimePicker for the return time
+	 */
+	public static TimePicker returnTrip(WebDriver driver, String name) {
+		return new TimePicker(driver, name, "div#rap label[for='ram']", "div#rap label[for='rpm']",
+				"div#rhr ul li", "div#rmin ul li", "div[onclick='rDone()']");
+	}
+
+	/**
+	 * Selects a time and confirms it with Done.
+	 *
+	 * @param time Time string in HH:mm AM/PM format (e.g., "09:30 PM")
+	 */
+	public void select(String time) {
+		String[] timeParts = time.trim().split("[: ]+");
+		int hour = Integer.parseInt(timeParts[0]);
+		int minute = Integer.parseInt(timeParts[1]);
+		String meridian = timeParts.length > 2 ? timeParts[2].toUpperCase() : null;
+
+		List<WebElement> cells = resolve(hour, minute, meridian);
+		try {
+			Actions actions = new Actions(driver);
+			for (WebElement cell : cells) {
+				actions.click(cell);
+			}
+			actions.perform();
+		} catch (WebDriverException e) {
+			log.warn(name + ": pointer actions failed (" + e.getClass().getSimpleName()
+					+ "), clicking from script");
+			((JavascriptExecutor) driver).executeScript(CLICK_SCRIPT, cells);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<WebElement> resolve(int hour, int minute, String meridian) {
+		return wait.until(name, d -> (List<WebElement>) ((JavascriptExecutor) d).executeScript(RESOLVE_SCRIPT,
+				selectors, hour, minute, meridian));
+	}
+}
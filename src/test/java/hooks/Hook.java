@@ -1,79 +1,183 @@
 package hooks;
 
-import java.io.ByteArrayInputStream;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.Properties;
 
-import org.openqa.selenium.OutputType;
+import org.apache.logging.log4j.ThreadContext;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.testng.Reporter;
 
-import cabsObjectRepo.Airport;
 import io.cucumber.java.After;
 import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
+import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
 import io.qameta.allure.Allure;
-import objectRepositories.HomePage;
-import utilities.DriverSetup;
+import utilities.Checkpoint;
+import utilities.ConfigReader;
+import utilities.DriverPool;
+import utilities.FlightRecorder;
+import utilities.ResultSink;
+import utilities.ResultStore;
+import utilities.RunContext;
+import utilities.ScreenshotService;
+import utilities.SmartLocatorFactory;
 
 /**
- * Cucumber hook class for managing test lifecycle. Handles WebDriver
- * initialization, scenario-level reporting, and teardown after all scenarios
- * are executed.
+ * Cucumber hook class for managing test lifecycle. Pre-warms the browser
+ * session pool, borrows a session from the {@link DriverPool} for every
+ * scenario, handles scenario-level reporting, and closes the pooled sessions
+ * after all scenarios are executed.
  */
 public class Hook {
 
-	public static WebDriver driver;
 	public static String url;
-	public static DriverSetup setUp;
-	public static Airport airport;
-	public static HomePage home;
-	static String browser;
-	static Properties p;
 
 	/**
-	 * Executed before all scenarios. Initializes the WebDriver and navigates to
-	 * base URL. Browser type is retrieved from TestNG XML parameters.
-	 *
-	 * @throws IOException if config.properties fails to load
+	 * Executed before all scenarios. Loads the base URL from config.properties and
+	 * starts pool.size browser sessions in the background. Browser type is
+	 * retrieved from TestNG XML parameters.
 	 */
 	@BeforeAll
-	public static void setup() throws IOException {
-		setUp = new DriverSetup();
-		FileReader file = new FileReader(System.getProperty("user.dir") + "/src/test/resources/data/config.properties");
-		p = new Properties();
-		p.load(file);
-		url = p.getProperty("baseURL");
+	public static void setup() {
+		url = ConfigReader.get("baseURL");
+		DriverPool.prewarm(browser(), ConfigReader.getInt("pool.size", 1));
+	}
 
-		// Get browser name from TestNG XML
-		browser = Reporter.getCurrentTestResult().getTestContext().getCurrentXmlTest().getParameter("browser");
+	/**
+	 * Before each scenario, binds the browser and a pooled browser session to the
+	 * scenario thread. The browser and the scenario's shard name are also placed
+	 * in the logging context, so each browser logs to its own file and every log
+	 * event names its scenario. The scenario gets an empty result shard and an
+	 * empty flight recording of its own. Pooled sessions are already positioned on
+	 * the base URL.
+	 *
+	 * @param scenario Cucumber Scenario object
+	 * @throws IOException if the browser session cannot be launched
+	 */
+	@Before(order = 0)
+	public void openSession(Scenario scenario) throws IOException {
+		String browser = browser();
+		RunContext.setBrowser(browser);
+		ThreadContext.put("browser", RunContext.getBrowser());
+		Allure.parameter("browser", browser);
+		SmartLocatorFactory.resetScenarioStats();
+		ResultSink.discard();
+		ResultStore.openShard(scenario.getUri(), scenario.getLine());
+		ThreadContext.put("scenario", RunContext.getShard());
+		FlightRecorder.start();
+		DriverPool.acquire(browser);
+	}
 
-		driver = setUp.intializeWebDriver(browser);
-		driver.get(url);
+	/**
+	 * Before each scenario tagged @checkpoint, once its session is open, starts
+	 * checkpointing it. A retried scenario with a checkpoint is restored to it
+	 * (see {@link Checkpoint}).
+	 *
+	 * @param scenario Cucumber Scenario object
+	 */
+	@Before(value = "@checkpoint", order = 1)
+	public void beginCheckpoint(Scenario scenario) {
+		String restored = Checkpoint.begin(getDriver());
+		if (restored != null) {
+			scenario.log(restored);
+		}
+	}
+
+	/**
+	 * Before each step of a scenario tagged @checkpoint, counts the step, so
+	 * steps restored from a checkpoint are skipped.
+	 */
+	@BeforeStep("@checkpoint")
+	public void countStep() {
+		Checkpoint.stepStarting();
+	}
+
+	/**
+	 * After each step, keeps a snapshot of the browser in the scenario's flight
+	 * recording. Nothing is written to disk unless the scenario fails. Steps
+	 * restored from a checkpoint did nothing and are not recorded.
+	 *
+	 * @param scenario Cucumber Scenario object
+	 */
+	@AfterStep
+	public void recordStep(Scenario scenario) {
+		if (Checkpoint.skip()) {
+			return;
+		}
+		FlightRecorder.record(getDriver(), scenario.isFailed() ? "failed step" : "step");
+	}
+
+	/**
+	 * Returns the browser session owned by the current scenario thread.
+	 *
+	 * @return WebDriver for the running scenario
+	 */
+	public static WebDriver getDriver() {
+		return DriverPool.getDriver();
 	}
 
 	/**
 	 * After each scenario, attach a screenshot to Allure report if the test has
-	 * failed.
+	 * failed and a browser session was opened for it, and write the flight
+	 * recording of the last steps. Both are written in the background.
 	 *
 	 * @param scenario Cucumber Scenario object
 	 */
 	@After
 	public void attachSS(Scenario scenario) {
+		WebDriver driver = getDriver();
+		if (scenario.isFailed() && driver != null) {
+			ScreenshotService.attach((TakesScreenshot) driver, "Screenshot on Failure");
+		}
 		if (scenario.isFailed()) {
-			byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-			Allure.addAttachment("Screenshot on Failure", new ByteArrayInputStream(screenshot));
+			String history = FlightRecorder.dump(scenario.getName());
+			if (history != null) {
+				scenario.log("Flight recording of the last steps: " + history);
+			}
+		}
+	}
+
+	/**
+	 * Runs last after each scenario. Writes the scenario's buffered result files,
+	 * logs how many element lookups the page cache saved, keeps the scenario's
+	 * checkpoint only if it failed, then returns the scenario's session to the
+	 * pool, which resets it for the next scenario.
+	 *
+	 * @param scenario Cucumber Scenario object
+	 */
+	@After(order = 0)
+	public void closeSession(Scenario scenario) {
+		try {
+			ResultSink.flush();
+		} finally {
+			scenario.log(SmartLocatorFactory.scenarioReport());
+			Checkpoint.end(scenario.isFailed());
+			DriverPool.release();
+			ThreadContext.remove("browser");
+			ThreadContext.remove("scenario");
+			FlightRecorder.stop();
+			RunContext.clear();
 		}
 	}
 
 	/**
-	 * Executed once after all scenarios finish. Quits the WebDriver.
+	 * Executed once after all scenarios finish. Quits the pooled sessions of this
+	 * test's browser.
 	 */
 	@AfterAll
 	public static void tearDown() {
-		setUp.driverTearDown();
+		DriverPool.shutdown(browser());
+	}
+
+	/**
+	 * Reads the browser name of the running TestNG test from testng.xml.
+	 *
+	 * @return Browser name ("chrome" or "edge")
+	 */
+	static String browser() {
+		return Reporter.getCurrentTestResult().getTestContext().getCurrentXmlTest().getParameter("browser");
 	}
 }
@@ -2,20 +2,26 @@ package objectRepositories;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
 import java.util.List;
+import java.util.Locale;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import components.Autocomplete;
+import components.DatePicker;
+import utilities.Locators;
+import utilities.SmartLocatorFactory;
+import utilities.SmartWait;
 import utilities.TextFileWriter;
+import utilities.WaitFor;
+import utilities.WaitFor.Condition;
 
 /**
  * Page Object Model for the Activities booking section. Handles city search,
@@ -24,7 +30,13 @@ import utilities.TextFileWriter;
 public class Activities {
 	WebDriver driver;
 	JavascriptExecutor js;
-	WebDriverWait wait;
+	SmartWait wait;
+	DatePicker calendar;
+	Autocomplete citySuggestions;
+
+	/** Month and year as shown in the calendar header, e.g. July 2025 */
+	static final DateTimeFormatter MONTH_YEAR_FORMAT = new DateTimeFormatterBuilder().parseCaseInsensitive()
+			.appendPattern("MMMM yyyy").toFormatter(Locale.ENGLISH);
 
 	/**
 	 * Constructor that initializes web elements and supporting utilities.
@@ -33,9 +45,13 @@ public class Activities {
 	 */
 	public Activities(WebDriver driver) {
 		this.driver = driver;
-		PageFactory.initElements(driver, this);
+		SmartLocatorFactory.initElements(driver, this);
 		this.js = (JavascriptExecutor) driver;
-		this.wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+		this.wait = new SmartWait(driver, Duration.ofSeconds(15));
+		// The activities calendar has no previous-month button
+		this.calendar = new DatePicker(driver, "Activities.calendar", "//li[@class='wt600']",
+				"//li[@id='traveldatenextMonth']", null, Locators.ACTIVITIES_DAY);
+		this.citySuggestions = new Autocomplete(driver, "Activities.city", "//div[@id='autolist']/ul/li");
 		System.out.println("Initialized Activities_ObjectRepository");
 	}
 
@@ -47,18 +63,6 @@ public class Activities {
 	@FindBy(id = "traveldateSec")
 	WebElement clickDate;
 
-	/** Element displaying current month and year in calendar */
-	@FindBy(xpath = "//li[@class='wt600']")
-	WebElement currentMonthYear;
-
-	/** Button for navigating to next month */
-	@FindBy(xpath = "//li[@id='traveldatenextMonth']")
-	WebElement nextMonthButton;
-
-	/** All date elements in calendar */
-	@FindBy(xpath = "//table//tbody//tr//td//span")
-	List<WebElement> allDates;
-
 	/** Search button to find activities */
 	@FindBy(id = "srchBtn")
 	WebElement searchBtn;
@@ -68,27 +72,25 @@ public class Activities {
 	WebElement fullCity;
 
 	/** Suggestion list container */
-	@FindBy(xpath = "//div[@id='autolist']/ul")
+	@FindBy(css = "div#autolist > ul")
 	WebElement suggestionListContainer;
 
-	/** List of auto-suggested cities */
-	@FindBy(xpath = "//div[@id='autolist']/ul/li")
-	List<WebElement> citySuggestions;
-
 	/** Sort option: Price Low to High */
-	@FindBy(xpath = "//li[@id='plh']")
+	@WaitFor(Condition.VISIBLE)
+	@FindBy(css = "li#plh")
 	WebElement priceLowToHigh;
 
 	/** Checkbox image for filtering day trips */
-	@FindBy(xpath = "//div[@id='Day_Trips-chk']//img[@class='tickImg']")
+	@FindBy(css = "div#Day_Trips-chk img[class='tickImg']")
 	WebElement dayTripsCheckbox;
 
 	/** Container element for day trips checkbox */
+	@WaitFor(Condition.VISIBLE)
 	@FindBy(xpath = "//div[@id='Day_Trips-chk']/..")
 	WebElement dayTripsImg;
 
 	/** List of activity city names in search results */
-	@FindBy(xpath = "//div[@class='_cityname']")
+	@FindBy(css = "div[class='_cityname']")
 	List<WebElement> cityNames;
 
 	/**
@@ -108,18 +110,12 @@ public class Activities {
 	}
 
 	/**
-	 * Navigates the calendar until the target month and year are displayed.
+	 * Moves the calendar to the target month and year.
 	 * 
 	 * @param targetMonthYear Desired month and year (e.g., "July 2025")
 	 */
 	public void selectMonthAndYear(String targetMonthYear) {
-		while (true) {
-			String displayed = currentMonthYear.getText().trim();
-			if (displayed.equalsIgnoreCase(targetMonthYear)) {
-				break;
-			}
-			nextMonthButton.click();
-		}
+		calendar.showMonth(YearMonth.parse(targetMonthYear.trim(), MONTH_YEAR_FORMAT));
 	}
 
 	/**
@@ -128,12 +124,7 @@ public class Activities {
 	 * @param targetDate Day of the month to select (e.g., "15")
 	 */
 	public void selectDate(String targetDate) {
-		for (WebElement dateElement : allDates) {
-			if (dateElement.getText().equals(targetDate)) {
-				dateElement.click();
-				break;
-			}
-		}
+		calendar.clickDay(Integer.parseInt(targetDate.trim()));
 	}
 
 	/**
@@ -159,20 +150,7 @@ public class Activities {
 	 * @param cityNamePartial Partial city name used to locate suggestions
 	 */
 	public void selectCity(String cityNamePartial) {
-		wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath("//div[@id='autolist']/ul/li")));
-		while (true) {
-			try {
-				for (WebElement city : citySuggestions) {
-					String text = city.getText();
-					if (text.startsWith(cityNamePartial) && text.contains(cityNamePartial)) {
-						city.click();
-						break;
-					}
-				}
-				break;
-			} catch (StaleElementReferenceException e) {
-			}
-		}
+		citySuggestions.pick(cityNamePartial);
 	}
 
 	/**
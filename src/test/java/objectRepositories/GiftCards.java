@@ -1,23 +1,18 @@
 package objectRepositories;
 
-import java.io.File;
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.OutputType;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.io.FileHandler;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.Select;
 import org.testng.Assert;
 
 import utilities.ExcelWrite;
+import utilities.SmartLocatorFactory;
+import utilities.ScreenshotService;
 
 /**
  * Page Object Model for the Gift Cards section. Supports navigation to gift
@@ -30,8 +25,8 @@ public class GiftCards {
 	Actions acts;
 
 	/** Flags for validation status */
-	static boolean emailFlag;
-	static boolean mobileFlag;
+	boolean emailFlag;
+	boolean mobileFlag;
 
 	/**
 	 * Constructor to initialize Gift Cards page elements and utilities.
@@ -42,13 +37,13 @@ public class GiftCards {
 		this.driver = driver;
 		js = (JavascriptExecutor) driver;
 		acts = new Actions(driver);
-		PageFactory.initElements(driver, this);
+		SmartLocatorFactory.initElements(driver, this);
 		System.out.println("Initialized Cards page object");
 	}
 
 	// Web Elements
 
-	@FindBy(xpath = "//div[@class='_menurohdr']/ul/li[@class='_subheaderlink']")
+	@FindBy(css = "div[class='_menurohdr'] > ul > li[class='_subheaderlink']")
 	WebElement moreIcon;
 
 	@FindBy(xpath = "//span[@class=\"fnt14\" and text()=\"Gift Card\"]")
@@ -57,40 +52,40 @@ public class GiftCards {
 	@FindBy(xpath = "//div[@class='tab']/button[text()='Festival']")
 	WebElement festivalTab;
 
-	@FindBy(xpath = "//img[contains(@src,'fireworks')]")
+	@FindBy(css = "img[src*='fireworks']")
 	WebElement festivalImg;
 
-	@FindBy(xpath = "//div[@id=\"Festival\"]//div[@class=\"crdmgmn\"]/img[contains(@src,\"diwali\")]")
+	@FindBy(css = "div#Festival div[class='crdmgmn'] > img[src*='diwali']")
 	WebElement diwaliCard;
 
 	@FindBy(xpath = "//h4[text()=\"Enter Sender and Receiver Details\"]")
 	WebElement formHeader;
 
-	@FindBy(xpath = "//input[@placeholder=\"Min 1000 -  50000\"]")
+	@FindBy(css = "input[placeholder='Min 1000 -  50000']")
 	WebElement denominationInput;
 
-	@FindBy(xpath = "//select[@ng-change=\"GetPayAmount()\"]")
+	@FindBy(css = "select[ng-change='GetPayAmount()']")
 	WebElement quantityDropdown;
 
-	@FindBy(xpath = "//span[@class=\"left\" ]")
+	@FindBy(css = "span[class='left']")
 	WebElement scrollToBtm;
 
-	@FindBy(xpath = "//input[@ng-change=\"SameAsSender()\"]")
+	@FindBy(css = "input[ng-change='SameAsSender()']")
 	WebElement sameAsReciever;
 
-	@FindBy(xpath = "//input[@ng-model=\"User.SenderName\" and @ng-change=\"SameOnCheck()\"]")
+	@FindBy(css = "input[ng-model='User.SenderName'][ng-change='SameOnCheck()']")
 	WebElement senderName;
 
-	@FindBy(xpath = "//input[@id=\"txtEmailId\"]")
+	@FindBy(css = "input#txtEmailId")
 	WebElement senderEmail;
 
-	@FindBy(xpath = "//input[@ng-model=\"User.SenderMobile\"]")
+	@FindBy(css = "input[ng-model='User.SenderMobile']")
 	WebElement senderMobile;
 
-	@FindBy(xpath = "//input[@ng-change=\"IsValidate()\"]")
+	@FindBy(css = "input[ng-change='IsValidate()']")
 	WebElement acceptTnC;
 
-	@FindBy(xpath = "//div[@class=\"w_50 \"]")
+	@FindBy(css = "div[class='w_50 ']")
 	WebElement formScreenshot;
 
 	/**
@@ -213,17 +208,11 @@ public class GiftCards {
 	/**
 	 * Captures and stores screenshot of the form section for invalid inputs.
 	 * 
+	 * The file is written in the background.
+	 * 
 	 * @param prefix Filename prefix (e.g., "Email")
-	 * @throws IOException if file cannot be saved
 	 */
-	private void takeScreenshot(String prefix) throws IOException {
-		DateFormat df = new SimpleDateFormat("dd-MM-yy-hh-mm-ss-a");
-		String timestamp = df.format(new Date());
-		File dir = new File(".\\Screenshots");
-		if (!dir.exists())
-			dir.mkdirs();
-
-		File srcFile = formScreenshot.getScreenshotAs(OutputType.FILE);
-		FileHandler.copy(srcFile, new File(".\\Screenshots\\" + prefix + "_" + timestamp + ".png"));
+	private void takeScreenshot(String prefix) {
+		ScreenshotService.save(formScreenshot, prefix);
 	}
 }
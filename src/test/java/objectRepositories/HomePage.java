@@ -4,7 +4,8 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+
+import utilities.SmartLocatorFactory;
 
 /**
  * Page Object Model for the home page navigation. Provides access to Home,
@@ -20,23 +21,23 @@ public class HomePage {
 	 */
 	public HomePage(WebDriver driver) {
 		this.driver = driver;
-		PageFactory.initElements(driver, this);
+		SmartLocatorFactory.initElements(driver, this);
 	}
 
 	/** Home tab element in header */
-	@FindBy(xpath = "//div[@class='emt_header']")
+	@FindBy(css = "div[class='emt_header']")
 	WebElement homeTab;
 
 	/** Cabs tab in navigation menu */
-	@FindBy(xpath = "//*[@id='myTopnav']/div/ul/li[7]")
+	@FindBy(css = "#myTopnav > div > ul > li:nth-of-type(7)")
 	WebElement cabsTab;
 
 	/** Activities tab in navigation menu */
-	@FindBy(xpath = "//*[@id='myTopnav']/div/ul/li[8]")
+	@FindBy(css = "#myTopnav > div > ul > li:nth-of-type(8)")
 	WebElement activity;
 
 	/** Hotels tab in navigation menu */
-	@FindBy(xpath = "//*[@id='myTopnav']/div/ul/li[2]")
+	@FindBy(css = "#myTopnav > div > ul > li:nth-of-type(2)")
 	WebElement hotels;
 
 	/**
@@ -3,14 +3,14 @@ package objectRepositories;
 import java.util.List;
 
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.testng.Assert;
 
+import components.Autocomplete;
 import utilities.JsonDataWriter;
+import utilities.SmartLocatorFactory;
 
 /**
  * Page Object Model for Hotel Booking functionality. Handles selecting city,
@@ -20,6 +20,7 @@ import utilities.JsonDataWriter;
 public class Hotels {
 	WebDriver driver;
 	static JavascriptExecutor jse;
+	Autocomplete citySuggestions;
 
 	/**
 	 * Initializes hotel booking page elements.
@@ -28,37 +29,34 @@ public class Hotels {
 	 */
 	public Hotels(WebDriver driver) {
 		this.driver = driver;
-		PageFactory.initElements(driver, this);
+		this.citySuggestions = new Autocomplete(driver, "Hotels.city", "//div[@class='w_85 dest_namect']");
+		SmartLocatorFactory.initElements(driver, this);
 	}
 
 	// Web Elements
 
 	/** City selection dropdown/button */
-	@FindBy(xpath = "//div/span[@class='hp_city']")
+	@FindBy(css = "div > span[class='hp_city']")
 	WebElement cityName;
 
 	/** Input box for typing city name */
 	@FindBy(id = "txtCity")
 	WebElement name;
 
-	/** Suggested city options */
-	@FindBy(xpath = "//div[@class='w_85 dest_namect']")
-	List<WebElement> citynames;
-
 	/** Click to open check-in date selector */
-	@FindBy(xpath = "//div[@class=\"hp_inputBox ht-dates\"]//div[@id='htl_dates']")
+	@FindBy(css = "div[class='hp_inputBox ht-dates'] div#htl_dates")
 	WebElement clickCI;
 
 	/** Check-in month dropdown */
-	@FindBy(xpath = "//select[@data-handler='selectMonth']")
+	@FindBy(css = "select[data-handler='selectMonth']")
 	WebElement month;
 
 	/** List of available check-in month options */
-	@FindBy(xpath = "//select[@data-handler=\"selectMonth\"]/option")
+	@FindBy(css = "select[data-handler='selectMonth'] > option")
 	List<WebElement> selectCImonth;
 
 	/** List of check-in date options */
-	@FindBy(xpath = "//td[@data-handler=\"selectDay\"]")
+	@FindBy(css = "td[data-handler='selectDay']")
 	List<WebElement> datesForCI;
 
 	/** Click to open check-out date selector */
@@ -66,11 +64,11 @@ public class Hotels {
 	WebElement clickCO;
 
 	/** List of available check-out month options */
-	@FindBy(xpath = "//select[@data-handler=\"selectMonth\"]/option")
+	@FindBy(css = "select[data-handler='selectMonth'] > option")
 	List<WebElement> selectCOmonth;
 
 	/** List of check-out date options */
-	@FindBy(xpath = "//td[@data-handler=\"selectDay\"]")
+	@FindBy(css = "td[data-handler='selectDay']")
 	List<WebElement> datesForCO;
 
 	/** Button to confirm date selection */
@@ -90,7 +88,7 @@ public class Hotels {
 	WebElement priceCheckBox;
 
 	/** Priority sort dropdown */
-	@FindBy(xpath = "//div[contains(@class,'drp-bx')]")
+	@FindBy(css = "div[class*='drp-bx']")
 	WebElement priority;
 
 	/** Price Low to High sort option */
@@ -116,21 +114,7 @@ public class Hotels {
 	public void selectingCity(String cityname, String place, String city) throws Exception {
 		cityName.click();
 		name.sendKeys(cityname);
-
-		while (true) {
-			try {
-				for (WebElement i : citynames) {
-					String placename = i.getText();
-					if (placename.startsWith(place) && placename.contains(city)) {
-						i.click();
-						break;
-					}
-				}
-				break;
-			} catch (StaleElementReferenceException e) {
-				// Retry on stale elements
-			}
-		}
+		citySuggestions.pick(place, city);
 	}
 
 	/**
@@ -202,9 +186,11 @@ public class Hotels {
 		priority.click();
 		Assert.assertTrue(priceLowToHigh.isDisplayed(), "Price Low to High Sort option is not displayed");
 		priceLowToHigh.click();
-		Assert.assertNotNull(hotelName.getText(), "Hotel name not displayed");
-		Assert.assertNotNull(hotelPrice.getText(), "Hotel price not displayed");
+		String name = hotelName.getText();
+		String price = hotelPrice.getText();
+		Assert.assertNotNull(name, "Hotel name not displayed");
+		Assert.assertNotNull(price, "Hotel price not displayed");
 
-		JsonDataWriter.writeSimpleData(hotelName.getText(), hotelPrice.getText(), "HotelWriting.json");
+		JsonDataWriter.writeSimpleData(name, price, "HotelWriting.json");
 	}
 }
@@ -0,0 +1,100 @@
+package retry;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+/**
+ * Kinds of scenario failures, as seen by the {@link RetryPolicy}. Transient
+ * kinds (the page moved under the test, a wait ran out, the browser session
+ * died, an overlay was in the way) may pass on another attempt; the others
+ * (a failed assertion, a missing element, a bug in the test) fail the same way
+ * every time, so retrying them only costs time.
+ */
+public enum FailureClass {
+
+	/** The element was replaced while the test used it */
+	STALE(true),
+
+	/** A wait or a page load ran out of time */
+	TIMEOUT(true),
+
+	/** The browser session crashed or could not be reached */
+	SESSION(true),
+
+	/** Another element received the click, or the element was not ready */
+	INTERACTION(true),
+
+	/** An element was not on the page */
+	LOCATOR(false),
+
+	/** A check of the test failed */
+	ASSERTION(false),
+
+	/** Anything else */
+	OTHER(false);
+
+	private final boolean transientByDefault;
+
+	FailureClass(boolean transientByDefault) {
+		this.transientByDefault = transientByDefault;
+	}
+
+	/**
+	 * @return true if failures of this kind are retried unless configured
+	 *         otherwise
+	 */
+	public boolean isTransientByDefault() {
+		return transientByDefault;
+	}
+
+	/**
+	 * Classifies a failure by the first recognized exception in its cause chain.
+	 *
+	 * @param failure Throwable the scenario failed with (may be null)
+	 * @return Kind of the failure
+	 */
+	public static FailureClass of(Throwable failure) {
+		for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+			if (t instanceof AssertionError) {
+				return ASSERTION;
+			}
+			if (t instanceof StaleElementReferenceException) {
+				return STALE;
+			}
+			if (t instanceof TimeoutException) {
+				return TIMEOUT;
+			}
+			if (t instanceof NoSuchSessionException || t instanceof SessionNotCreatedException
+					|| t instanceof UnreachableBrowserException) {
+				return SESSION;
+			}
+			if (t instanceof ElementClickInterceptedException || t instanceof ElementNotInteractableException) {
+				return INTERACTION;
+			}
+			if (t instanceof NoSuchElementException) {
+				return LOCATOR;
+			}
+			if (t instanceof WebDriverException && isSessionLoss(t.getMessage())) {
+				return SESSION;
+			}
+		}
+		return OTHER;
+	}
+
+	/** Messages of a browser that crashed or was closed under the test */
+	private static boolean isSessionLoss(String message) {
+		if (message == null) {
+			return false;
+		}
+		String text = message.toLowerCase();
+		return text.contains("not reachable") || text.contains("disconnected") || text.contains("session deleted")
+				|| text.contains("target window already closed") || text.contains("tab crashed");
+	}
+}
@@ -4,17 +4,13 @@ import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
 /**
- * Custom TestNG retry analyzer for re-executing failed test cases. Retries a
- * test up to a specified maximum number of times (default: 2) if it fails.
+ * Custom TestNG retry analyzer for re-executing failed test cases. Whether a
+ * failed scenario is retried is decided by the {@link RetryPolicy}: only
+ * transient failures are retried, up to retry.maxAttempts times per scenario
+ * (default: 2) and retry.budget times per suite.
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
 
-	/** Keeps track of how many times a test has been retried */
-	private int retryCount = 0;
-
-	/** Maximum number of retry attempts */
-	private static final int maxRetryCount = 2; // Customize retry limit
-
 	/**
 	 * This method is invoked by TestNG after a test method fails. If it returns
 	 * true, TestNG will retry the test; if false, no retry will occur.
@@ -24,11 +20,6 @@ public class RetryAnalyzer implements IRetryAnalyzer {
 	 */
 	@Override
 	public boolean retry(ITestResult result) {
-		if (!result.isSuccess() && retryCount < maxRetryCount) {
-			retryCount++;
-			System.out.println("🔁 Retrying failed scenario: " + result.getName() + " | Attempt #" + retryCount);
-			return true;
-		}
-		return false;
+		return !result.isSuccess() && RetryPolicy.retry(result);
 	}
 }
@@ -1,6 +1,9 @@
 package retry;
 
 import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
 import org.testng.annotations.ITestAnnotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -8,12 +11,15 @@ import java.lang.reflect.Method;
 /**
  * RetryListener is a TestNG annotation transformer. It automatically applies
  * the {@link RetryAnalyzer} retry logic to every test method. This eliminates
- * the need to manually specify retryAnalyzer on each @Test annotation.
+ * the need to manually specify retryAnalyzer on each @Test annotation. As an
+ * invoked-method listener it also tells the {@link RetryPolicy} which attempts
+ * are retries and how they ended, so retry time and flaky scenarios are
+ * reported and failures of quarantined scenarios are reported as skipped.
  *
  * Usage: Register this class as a listener in your testng.xml or via @Listeners
  * annotation.
  */
-public class RetryListener implements IAnnotationTransformer {
+public class RetryListener implements IAnnotationTransformer, IInvokedMethodListener {
 
 	/**
 	 * Intercepts test method annotations and assigns RetryAnalyzer to enable
@@ -29,4 +35,18 @@ public class RetryListener implements IAnnotationTransformer {
 	public void transform(ITestAnnotation annotation, Class testClass, Constructor constructor, Method method) {
 		annotation.setRetryAnalyzer(RetryAnalyzer.class);
 	}
+
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (method.isTestMethod()) {
+			RetryPolicy.beforeAttempt(testResult);
+		}
+	}
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (method.isTestMethod()) {
+			RetryPolicy.afterAttempt(testResult);
+		}
+	}
 }
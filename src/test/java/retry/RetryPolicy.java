@@ -0,0 +1,234 @@
+package retry;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import utilities.ConfigReader;
+import utilities.ResultStore;
+import utilities.RunHistory;
+
+/**
+ * Decides which failed scenarios are run again. A failure is classified first
+ * (see {@link FailureClass}); only the kinds listed in retry.classes
+ * (config.properties, default STALE,TIMEOUT,SESSION,INTERACTION) are retried,
+ * so a failed assertion such as "No cab prices were displayed." fails at once
+ * instead of running three times.
+ *
+ * A scenario gets at most retry.maxAttempts retries (default 2), and the whole
+ * suite at most retry.budget retries (default 10), so a broken environment
+ * cannot multiply the run time. Scenarios that flaked (failed, then passed on a
+ * retry) in at least retry.quarantinePercent (default 30) of their last
+ * history.baselineRuns runs, or that are listed in retry.quarantine, are
+ * quarantined: they still run, but are not retried and a failure is reported
+ * as skipped instead of failing the suite.
+ *
+ * Scenarios are identified by browser and shard name (see
+ * {@link ResultStore#shardName(java.net.URI, int)}).
+ */
+public class RetryPolicy {
+
+	private static final Logger log = LogManager.getLogger(RetryPolicy.class);
+
+	private static final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+	private static final Map<FailureClass, AtomicInteger> retried = new EnumMap<>(FailureClass.class);
+	private static final Map<FailureClass, AtomicInteger> notRetried = new EnumMap<>(FailureClass.class);
+	private static final Set<String> passedOnRetry = ConcurrentHashMap.newKeySet();
+	private static final Set<String> quarantinedFailures = ConcurrentHashMap.newKeySet();
+	private static final AtomicInteger budgetRefusals = new AtomicInteger();
+	private static final AtomicLong retryMillis = new AtomicLong();
+
+	private static final AtomicInteger budget = new AtomicInteger(ConfigReader.getInt("retry.budget", 10));
+
+	static {
+		for (FailureClass kind : FailureClass.values()) {
+			retried.put(kind, new AtomicInteger());
+			notRetried.put(kind, new AtomicInteger());
+		}
+	}
+
+	/** Attribute marking a test result that is a retry of an earlier attempt */
+	static final String RETRY_ATTEMPT = "retry.attempt";
+
+	/**
+	 * Quarantined scenarios (browser and shard name, or a shard name for every
+	 * browser), computed once from the configuration and the run history.
+	 */
+	private static class Quarantine {
+		static final Set<String> SCENARIOS = load();
+
+		private static Set<String> load() {
+			Set<String> scenarios = new TreeSet<>();
+			String listed = ConfigReader.get("retry.quarantine");
+			if (listed != null && !listed.isEmpty()) {
+				for (String name : listed.split(",")) {
+					scenarios.add(name.trim());
+				}
+			}
+			int percent = ConfigReader.getInt("retry.quarantinePercent", 30);
+			int minRuns = ConfigReader.getInt("retry.quarantineMinRuns", 3);
+			// Scenario -> runs it appeared in, and runs in which it failed and passed
+			Map<String, Set<String>> runs = new HashMap<>();
+			Map<String, Set<String>> failedRuns = new HashMap<>();
+			Map<String, Set<String>> passedRuns = new HashMap<>();
+			for (RunHistory.ScenarioRecord record : RunHistory.baseline(RunHistory.load(), RunHistory.RUN_ID,
+					Math.max(1, ConfigReader.getInt("history.baselineRuns", 10)))) {
+				String key = record.browser() + " " + record.scenario();
+				runs.computeIfAbsent(key, k -> new HashSet<>()).add(record.run());
+				(record.passed() ? passedRuns : failedRuns).computeIfAbsent(key, k -> new HashSet<>())
+						.add(record.run());
+			}
+			for (Map.Entry<String, Set<String>> entry : runs.entrySet()) {
+				Set<String> flaky = new HashSet<>(failedRuns.getOrDefault(entry.getKey(), new HashSet<>()));
+				flaky.retainAll(passedRuns.getOrDefault(entry.getKey(), new HashSet<>()));
+				int total = entry.getValue().size();
+				if (total >= minRuns && flaky.size() * 100 >= percent * total) {
+					scenarios.add(entry.getKey());
+				}
+			}
+			if (!scenarios.isEmpty()) {
+				System.out.println("Retry policy: quarantined " + scenarios);
+			}
+			return scenarios;
+		}
+	}
+
+	/**
+	 * Decides whether a failed attempt is run again.
+	 *
+	 * @param result Result of the failed attempt
+	 * @return true to run the scenario again
+	 */
+	public static boolean retry(ITestResult result) {
+		String scenario = scenario(result);
+		FailureClass kind = FailureClass.of(result.getThrowable());
+		String reason = null;
+		if (isQuarantined(scenario)) {
+			reason = "quarantined";
+		} else if (!retriedClasses().contains(kind)) {
+			reason = kind + " failures are not retried";
+		} else if (attempts(scenario).get() >= ConfigReader.getInt("retry.maxAttempts", 2)) {
+			reason = "no retries left for the scenario";
+		} else if (budget.getAndUpdate(left -> left > 0 ? left - 1 : 0) == 0) {
+			budgetRefusals.incrementAndGet();
+			reason = "suite retry budget used up";
+		}
+		if (reason != null) {
+			notRetried.get(kind).incrementAndGet();
+			log.info("Not retrying " + scenario + " (" + kind + "): " + reason);
+			return false;
+		}
+		retried.get(kind).incrementAndGet();
+		log.info("🔁 Retrying failed scenario: " + scenario + " (" + kind + ") | Attempt #"
+				+ attempts(scenario).incrementAndGet());
+		return true;
+	}
+
+	/**
+	 * Marks an attempt that is a retry, before it runs.
+	 *
+	 * @param result Result of the attempt about to run
+	 */
+	static void beforeAttempt(ITestResult result) {
+		if (attempts(scenario(result)).get() > 0) {
+			result.setAttribute(RETRY_ATTEMPT, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Records the outcome of an attempt: the time spent on retries, scenarios
+	 * that passed on a retry, and failures of quarantined scenarios, which are
+	 * reported as skipped.
+	 *
+	 * @param result Result of the finished attempt
+	 */
+	static void afterAttempt(ITestResult result) {
+		String scenario = scenario(result);
+		if (result.getAttribute(RETRY_ATTEMPT) != null) {
+			retryMillis.addAndGet(result.getEndMillis() - result.getStartMillis());
+			if (result.isSuccess()) {
+				passedOnRetry.add(scenario);
+			}
+		}
+		if (result.getStatus() == ITestResult.FAILURE && isQuarantined(scenario)) {
+			quarantinedFailures.add(scenario);
+			result.setStatus(ITestResult.SKIP);
+			log.warn("Quarantined scenario failed, reported as skipped: " + scenario);
+		}
+	}
+
+	/**
+	 * @return Retries per failure kind, flaky scenarios, budget and time spent on
+	 *         retries
+	 */
+	public static String report() {
+		StringBuilder kinds = new StringBuilder();
+		for (FailureClass kind : FailureClass.values()) {
+			int done = retried.get(kind).get();
+			int refused = notRetried.get(kind).get();
+			if (done + refused > 0) {
+				kinds.append(kinds.length() == 0 ? "" : ", ").append(kind).append(' ').append(done).append(" retried/")
+						.append(refused).append(" not");
+			}
+		}
+		return "Retry policy: " + (kinds.length() == 0 ? "no failures" : kinds) + "; " + passedOnRetry.size()
+				+ " scenarios passed on a retry " + new TreeSet<>(passedOnRetry) + ", " + quarantinedFailures.size()
+				+ " quarantined failures, " + budget.get() + " retries of the budget left (" + budgetRefusals.get()
+				+ " refused), " + retryMillis.get() / 1000 + " s spent on retries";
+	}
+
+	/** Quarantined by browser and shard name, or by shard name on every browser */
+	private static boolean isQuarantined(String scenario) {
+		return Quarantine.SCENARIOS.contains(scenario)
+				|| Quarantine.SCENARIOS.contains(scenario.substring(scenario.indexOf(' ') + 1));
+	}
+
+	private static Set<FailureClass> retriedClasses() {
+		String listed = ConfigReader.get("retry.classes");
+		if (listed == null || listed.isEmpty()) {
+			Set<FailureClass> defaults = new HashSet<>();
+			for (FailureClass kind : FailureClass.values()) {
+				if (kind.isTransientByDefault()) {
+					defaults.add(kind);
+				}
+			}
+			return defaults;
+		}
+		Set<FailureClass> classes = new HashSet<>();
+		for (String name : Arrays.asList(listed.split(","))) {
+			classes.add(FailureClass.valueOf(name.trim().toUpperCase()));
+		}
+		return classes;
+	}
+
+	private static AtomicInteger attempts(String scenario) {
+		return attempts.computeIfAbsent(scenario, k -> new AtomicInteger());
+	}
+
+	/**
+	 * Browser and shard name of the scenario a test result ran, e.g. "chrome
+	 * 02_OutstationCabs.feature-L00012"; the test name for other tests.
+	 */
+	static String scenario(ITestResult result) {
+		String browser = result.getTestContext().getCurrentXmlTest().getParameter("browser");
+		Object[] parameters = result.getParameters();
+		if (parameters.length > 0 && parameters[0] instanceof PickleWrapper) {
+			Pickle pickle = ((PickleWrapper) parameters[0]).getPickle();
+			return browser + " " + ResultStore.shardName(pickle.getUri(), pickle.getLine());
+		}
+		return browser + " " + result.getName();
+	}
+}
@@ -2,6 +2,7 @@ package stepDefinitions;
 
 import java.io.IOException;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -12,7 +13,6 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.Activities;
 import objectRepositories.HomePage;
-import utilities.DriverSetup;
 import utilities.ReadXMLUtil;
 import utilities.ScreenshotUtil;
 
@@ -26,18 +26,16 @@ import utilities.ScreenshotUtil;
 
 public class ActivitiesStepDef {
 
-	static WebDriver driver;
-	static DriverSetup setUp;
-	static Activities act;
-	static HomePage home;
-	public static Logger log;
+	WebDriver driver;
+	Activities act;
+	HomePage home;
+	private static final Logger log = LogManager.getLogger(ActivitiesStepDef.class);
 
 	@Given("The user open the browser and navigate to EaseMyTrip")
 	public void the_user_open_the_browser_and_navigate_to_ease_my_trip() {
 		// Write code here that turns the phrase above into concrete actions
-		log = DriverSetup.getLogger();
 		log.info("***** TC_06-Activities Section Field Level*****");
-		driver = Hook.driver;
+		driver = Hook.getDriver();
 		Assert.assertNotNull(driver, "Driver is null");
 		home = new HomePage(driver);
 		act = new Activities(driver);
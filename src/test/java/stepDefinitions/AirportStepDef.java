@@ -3,6 +3,7 @@ package stepDefinitions;
 import java.io.IOException;
 import java.util.Map;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -14,7 +15,6 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.HomePage;
-import utilities.DriverSetup;
 import utilities.ExcelUtils;
 import utilities.ExcelWrite;
 import utilities.ScreenshotUtil;
@@ -29,9 +29,9 @@ public class AirportStepDef {
 	HomePage home;
 	Airport airport;
 	ExcelWrite writer;
-	public static Logger log;
+	private static final Logger log = LogManager.getLogger(AirportStepDef.class);
 	Map<String, Map<String, String>> testData;
-	String filePath = ".\\src\\test\\resources\\data\\AirportCabsData.xlsx";
+	String filePath = "src/test/resources/data/AirportCabsData.xlsx";
 	Map<String, String> row;
 	
 	/*
@@ -41,13 +41,12 @@ public class AirportStepDef {
 	
 	@Given("the user loads test data for {string}")
 	public void load_test_data(String testCaseId) throws IOException {
-		log = DriverSetup.getLogger();
 		if (testCaseId.equalsIgnoreCase("TC01")) {
 			log.info("***** TC_01-Airport Pickup cabs*****");
 		} else if (testCaseId.equalsIgnoreCase("TC02")) {
 			log.info("***** TC_02-Airport Drop cabs*****");
 		}
-		driver = Hook.driver;
+		driver = Hook.getDriver();
 		Assert.assertNotNull(driver, "Driver is null");
 		// Page object instances for Home and Airport transfer pages
 		home = new HomePage(driver);
@@ -109,11 +108,12 @@ public class AirportStepDef {
 
 	@Then("the filtered cab results should be displayed")
 	public void display_filtered_cabs() throws IOException {
-		writer = new ExcelWrite(".\\src\\test\\resources\\data\\AirportCabsData.xlsx", "Results");
+		// Both result layouts share the header row: names and prices, or the least sedan price
+		writer = new ExcelWrite("AirportCabsResults.xlsx", "Results", "Cab Names", "Cab Prices",
+				"Least Sedan Price");
 		// Capture and write results based on expected output type
 		if (row.get("Results").equalsIgnoreCase("names and prices")) {
-			airport.displayNames(writer);
-			airport.displayPrices(writer);
+			airport.displayNamesAndPrices(writer);
 			ScreenshotUtil.captureScreenShot(driver, "AirportPickUpTC");
 		} else {
 			airport.displayPrice(writer);
@@ -2,6 +2,7 @@ package stepDefinitions;
 
 import java.io.IOException;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -14,7 +15,7 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.HomePage;
-import utilities.DriverSetup;
+import utilities.Fare;
 import utilities.JsonDataReader;
 import utilities.JsonDataWriter;
 import utilities.ScreenshotUtil;
@@ -29,19 +30,17 @@ import utilities.ScreenshotUtil;
 
 public class CabHourlyStepDef {
 
-	static WebDriver driver;
-	static DriverSetup setUp;
-	static HomePage home;
-	static Hourly hour;
-	public static Logger log;
+	WebDriver driver;
+	HomePage home;
+	Hourly hour;
+	private static final Logger log = LogManager.getLogger(CabHourlyStepDef.class);
 	String fileName = "HourlyCabs.json";
 	JsonObject cabData = JsonDataReader.getCabData("Hourly", fileName);
 
 	@Given("user open the browser and navigate to EaseMyTrip")
 	public void openBrowser() {
-		log = DriverSetup.getLogger();
 		log.info("***** TC_05-Hourly cabs*****");
-		driver = Hook.driver;
+		driver = Hook.getDriver();
 		Assert.assertNotNull(driver, "Driver is null");
 		home = new HomePage(driver);
 		hour = new Hourly(driver);
@@ -78,8 +77,9 @@ public class CabHourlyStepDef {
 
 	@Then("The user print the least fare")
 	public void the_user_print_the_least_fare() throws IOException {
-		JsonDataWriter.writeSimpleData("SUV", hour.getLeastFare(), "HourlyWriting.json");
-		log.info("displayed data");
+		Fare fare = hour.getLeastFare();
+		JsonDataWriter.writeSimpleData("SUV", fare.toString(), "HourlyWriting.json");
+		log.info("Lowest SUV fare found: " + fare);
 		ScreenshotUtil.captureScreenShot(driver, "CabHourlyTC");
 		log.info("Hourly  cabs TC completed");
 	}
@@ -3,6 +3,7 @@ package stepDefinitions;
 import java.io.IOException;
 import java.util.Map;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -13,7 +14,6 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.GiftCards;
 import objectRepositories.HomePage;
-import utilities.DriverSetup;
 import utilities.ExcelUtils;
 import utilities.ExcelWrite;
 
@@ -27,24 +27,22 @@ import utilities.ExcelWrite;
 
 public class GiftCardsStepDef {
 
-	static WebDriver driver;
-	static DriverSetup setUp;
-	static GiftCards gift;
-	static HomePage home;
-	public static Logger log;
+	WebDriver driver;
+	GiftCards gift;
+	HomePage home;
+	private static final Logger log = LogManager.getLogger(GiftCardsStepDef.class);
 	String id;
 	ExcelWrite writer;
 	Map<String, Map<String, String>> testData;
-	String filePath = ".\\src\\test\\resources\\data\\GiftCardData.xlsx";
+	String filePath = "src/test/resources/data/GiftCardData.xlsx";
 	Map<String, String> row;
 
 	@Given("the user clicks on More tab and selects GiftCard to test {string}")
 	public void the_user_clicks_on_more_tab_and_selects_gift_card(String testCaseId) throws IOException {
 		id = testCaseId;
-		log = DriverSetup.getLogger();
 		log.info("***** TC_09-validating email field in GiftCards Section*****");
 		log.info("***** TC_10-validating mobile number field in GiftCards Section*****");
-		driver = Hook.driver;
+		driver = Hook.getDriver();
 		Assert.assertNotNull(driver, "Driver is null");
 		home = new HomePage(driver);
 		gift = new GiftCards(driver);
@@ -77,7 +75,8 @@ public class GiftCardsStepDef {
 
 	@Then("it displays error message and captures screenshot")
 	public void it_displays_error_message_and_captures_screenshot() throws Exception {
-		writer = new ExcelWrite(filePath, "FormInfo");
+		writer = new ExcelWrite("GiftCardResults.xlsx", "FormInfo");
+		writer.setCellValue(0, 0, "TestCaseID");
 		writer.setCellValue(0, 6, "status");
 		log.info("generating Screenshots");
 
@@ -91,6 +90,7 @@ public class GiftCardsStepDef {
 			rowIndex = 3;
 		}
 
+		writer.setCellValue(rowIndex, 0, caseId);
 		gift.screenShots(writer, rowIndex);
 		log.info("Giftcards TC completed");
 		writer.save();
@@ -1,5 +1,6 @@
 package stepDefinitions;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -10,7 +11,6 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.HomePage;
 import objectRepositories.Hotels;
-import utilities.DriverSetup;
 import utilities.ReadXMLUtil;
 import utilities.ScreenshotUtil;
 
@@ -22,17 +22,15 @@ import utilities.ScreenshotUtil;
  */
 
 public class HotelsStepDef {
-	static WebDriver driver;
-	static DriverSetup setUp;
-	static Hotels hotels;
-	static HomePage home;
-	public static Logger log;
+	WebDriver driver;
+	Hotels hotels;
+	HomePage home;
+	private static final Logger log = LogManager.getLogger(HotelsStepDef.class);
 
 	@Given("the user clicks the hotels tab")
 	public void the_user_clicks_the_hotels_tab() {
-		log = DriverSetup.getLogger();
 		log.info("***** TC_08-Hotels Functionality Check*****");
-		driver = Hook.driver;
+		driver = Hook.getDriver();
 		Assert.assertNotNull(driver, "Driver is null");
 		home = new HomePage(driver);
 		hotels = new Hotels(driver);
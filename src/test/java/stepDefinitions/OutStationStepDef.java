@@ -2,6 +2,7 @@ package stepDefinitions;
 
 import java.io.IOException;
 
+import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
@@ -14,7 +15,7 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import objectRepositories.HomePage;
-import utilities.DriverSetup;
+import utilities.Checkpoint;
 import utilities.JsonDataReader;
 import utilities.ScreenshotUtil;
 
@@ -24,27 +25,27 @@ import utilities.ScreenshotUtil;
  * 
  * Covers both OneWay and RoundTrip cab booking flows, reads test data 
  * from JSON files, performs UI interactions, and validates results.
+ *
+ * The search is checkpointed once the results are shown, so a retry restores
+ * the results page and only runs the results step again (see Checkpoint).
+ * The driver and page objects are set up with the class, because a resumed
+ * scenario skips the steps that would otherwise create them.
  */
 
 public class OutStationStepDef {
 
-	static WebDriver driver;
-	static DriverSetup setUp;
-	static Outstation os;
-	static HomePage home;
-	public static Logger log;
+	WebDriver driver = Hook.getDriver();
+	Outstation os = new Outstation(driver);
+	HomePage home = new HomePage(driver);
+	private static final Logger log = LogManager.getLogger(OutStationStepDef.class);
 	String jsonfile = "OutstationCabsData.json";
 	JsonObject cabData = JsonDataReader.getCabData("OneWayTrip", jsonfile);
 	JsonObject cabDataRT = JsonDataReader.getCabData("RoundTrip", jsonfile);
 
 	@Given("The user go to Cabs and select Outstation OneWay Trip")
 	public void the_user_go_to_cabs_and_select_outstation_one_way_trip() {
-		log = DriverSetup.getLogger();
-		driver = Hook.driver;
 		Assert.assertNotNull(driver, "Driver is null");
 		log.info("***** TC_03-Outstation OneWay Trip cabs*****");
-		home = new HomePage(driver);
-		os = new Outstation(driver);
 		home.goToCabs();
 		boolean urlCheck = driver.getCurrentUrl().contains("cabs");
 		Assert.assertTrue(urlCheck, "Not navigated to cabs page");
@@ -76,6 +77,7 @@ public class OutStationStepDef {
 	@Then("The user click Search")
 	public void the_user_click_search() {
 		os.search();
+		Checkpoint.save(driver, d -> new Outstation(d).awaitResults());
 		log.info("entered data and clicked on search");
 	}
 
@@ -89,9 +91,13 @@ public class OutStationStepDef {
 
 	@Given("The user go to Cabs and select Outstation Round Trip")
 	public void the_user_go_to_cabs_and_select_outstation_round_trip() {
-		home.goToCabs();
+		Assert.assertNotNull(driver, "Driver is null");
 		log.info("***** TC_04-Outstation Round Trip cabs*****");
+		home.goToCabs();
+		boolean urlCheck = driver.getCurrentUrl().contains("cabs");
+		Assert.assertTrue(urlCheck, "Not navigated to cabs page");
 		os.switchToOutstation();
+		log.info("Swiched to outstation Cabs");
 	}
 
 	@When("user select From city and to city")
@@ -128,6 +134,7 @@ public class OutStationStepDef {
 	@Then("user click Search")
 	public void user_click_search() {
 		os.search();
+		Checkpoint.save(driver, d -> new Outstation(d).awaitResults());
 		log.info("entered data and clicked on search");
 	}
 
@@ -0,0 +1,150 @@
+package testRunner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import utilities.AllureReportCleaner;
+import utilities.AllureReportOpener;
+import utilities.ConfigReader;
+import utilities.ResultStore;
+import utilities.RunHistory;
+
+/**
+ * Runs the suite split over several JVMs at the same time. Each fork runs
+ * testng.xml with -Dshard.index/-Dshard.count, and {@link TestRun} then only
+ * provides that fork's share of the scenarios (see
+ * {@link utilities.ScenarioScheduler#shard}). Every fork computes the same
+ * split, balanced by the durations in the run history.
+ *
+ * The launcher cleans the shared report folders before the forks start. Each
+ * scenario writes its results into its own result shard, and the forks share
+ * one run id in the run history. Once every fork has finished, the launcher
+ * merges the result shards, compares the run with the history and opens the
+ * Allure report.
+ *
+ * Usage: {@code mvn test-compile exec:exec -Pshards -Dshard.count=4}. Any
+ * config.properties key given as -D to the launcher (e.g., -Dpool.size=2) is
+ * passed on to the forks, and shard.jvmArgs adds JVM options to each fork
+ * (e.g., "-Xmx2g"). A single shard can also be run on its own with
+ * {@code mvn test -Dshard.index=0 -Dshard.count=4}; the shards are then merged
+ * with {@link ResultStore#main(String[])}.
+ */
+public class ShardedRun {
+
+	/**
+	 * @return true if this JVM runs one shard of a sharded run
+	 */
+	public static boolean isFork() {
+		return count() > 1;
+	}
+
+	/**
+	 * @return Shard this JVM runs (0-based)
+	 */
+	public static int index() {
+		return ConfigReader.getInt("shard.index", 0);
+	}
+
+	/**
+	 * @return Number of shards the run is split into
+	 */
+	public static int count() {
+		return Math.max(1, ConfigReader.getInt("shard.count", 1));
+	}
+
+	/**
+	 * Starts shard.count forks (default 2), waits for them, then merges and
+	 * reports the run. Exits with the highest exit code of the forks.
+	 *
+	 * @param args Not used
+	 * @throws IOException          if a fork cannot be started
+	 * @throws InterruptedException if interrupted while waiting for the forks
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int count = Math.max(1, ConfigReader.getInt("shard.count", 2));
+		String runId = RunHistory.RUN_ID;
+		AllureReportCleaner.cleanAllureFolders();
+		ResultStore.clean();
+
+		System.out.println("Sharded run " + runId + ": starting " + count + " forks");
+		long start = System.currentTimeMillis();
+		List<Process> forks = new ArrayList<>();
+		List<Thread> pumps = new ArrayList<>();
+		for (int index = 0; index < count; index++) {
+			Process fork = new ProcessBuilder(command(index, count, runId)).redirectErrorStream(true).start();
+			forks.add(fork);
+			String prefix = "[shard " + index + "] ";
+			Thread pump = new Thread(() -> prefixOutput(fork, prefix), "shard-output-" + index);
+			pump.start();
+			pumps.add(pump);
+		}
+
+		int exitCode = 0;
+		for (int index = 0; index < count; index++) {
+			int code = forks.get(index).waitFor();
+			pumps.get(index).join();
+			System.out.println("Shard " + index + " finished with exit code " + code);
+			exitCode = Math.max(exitCode, code);
+		}
+		System.out.println("Sharded run " + runId + ": all forks done in "
+				+ (System.currentTimeMillis() - start) / 1000 + " s");
+
+		System.out.println(ResultStore.merge());
+		AllureReportOpener.openAllureReport();
+		try {
+			System.out.println(RunHistory.compareRun(runId));
+		} catch (IllegalStateException e) {
+			System.out.println(e.getMessage());
+			exitCode = Math.max(exitCode, 1);
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * Command line of one fork: the launcher's own Java and class path, the
+	 * shard settings, the config overrides given to the launcher, and TestNG
+	 * running testng.xml.
+	 */
+	private static List<String> command(int index, int count, String runId) {
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		String jvmArgs = ConfigReader.get("shard.jvmArgs");
+		if (jvmArgs != null && !jvmArgs.isEmpty()) {
+			command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("-Dshard.index=" + index);
+		command.add("-Dshard.count=" + count);
+		command.add("-Dhistory.runId=" + runId);
+		// Each fork logs to its own files (see log4j2.xml)
+		command.add("-Dlog.suffix=-shard" + index);
+		for (String key : ConfigReader.getProperties().stringPropertyNames()) {
+			if (!key.startsWith("shard.") && System.getProperty(key) != null) {
+				command.add("-D" + key + "=" + System.getProperty(key));
+			}
+		}
+		command.add("org.testng.TestNG");
+		command.add("testng.xml");
+		return command;
+	}
+
+	/** Copies a fork's output to the console, one prefixed line at a time */
+	private static void prefixOutput(Process fork, String prefix) {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(fork.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				System.out.println(prefix + line);
+			}
+		} catch (IOException e) {
+			System.out.println(prefix + "output lost: " + e.getMessage());
+		}
+	}
+}
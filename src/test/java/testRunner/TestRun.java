@@ -1,39 +1,153 @@
 package testRunner;
 
+import components.Autocomplete;
+import retry.RetryPolicy;
 import io.cucumber.testng.CucumberOptions;
 import utilities.AllureReportCleaner;
 import utilities.AllureReportOpener;
+import utilities.Checkpoint;
+import utilities.CheckpointObjectFactory;
+import utilities.ConfigReader;
+import utilities.FareAggregator;
+import utilities.FlightRecorder;
+import utilities.ResultStore;
+import utilities.RunHistory;
+import utilities.ScenarioScheduler;
+import utilities.ScreenshotService;
+import utilities.SmartLocatorFactory;
+import utilities.SmartWait;
+import utilities.StaleRetry;
+import utilities.TestDataRepository;
 
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.ITestContext;
 import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.DataProvider;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
 
 /**
  * TestNG runner class for executing Cucumber scenarios. Configured with desired
- * feature paths, glue code, tags, and reporting plugins. Automatically cleans
- * and opens Allure reports before and after test execution.
+ * feature paths, glue code, tags, and reporting plugins. Scenarios are served
+ * through a parallel data provider, each on its own pooled browser session.
+ * The HTML and JSON report paths are set per browser through the
+ * cucumber.plugin parameter of each test in testng.xml, so browsers running at
+ * the same time never write the same report. Automatically cleans and opens
+ * Allure reports before and after test execution.
  */
-@CucumberOptions(features = { ".\\src\\test\\resources\\features" }, glue = { "stepDefinitions",
-		"hooks" }, tags = "@sanity or @regression or @fieldLevel", plugin = { "pretty",
-				"html:target/cucumber-reports/cucumber-html-report.html",
-				"json:target/cucumber-reports/cucumber-report.json",
-				"io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm" }, monochrome = false)
+@CucumberOptions(features = { "src/test/resources/features" }, glue = { "stepDefinitions",
+		"hooks" }, objectFactory = CheckpointObjectFactory.class, tags = "@sanity or @regression or @fieldLevel", plugin = { "pretty",
+				"io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm",
+				"utilities.RunHistoryPlugin" }, monochrome = false)
 public class TestRun extends AbstractTestNGCucumberTests {
 
+	private String browser;
+	private int workers;
+
+	/**
+	 * Reads the browser and the number of parallel scenarios of this test before
+	 * Cucumber is set up.
+	 *
+	 * @param context TestNG context of the running test
+	 */
+	@Override
+	@BeforeClass(alwaysRun = true)
+	public void setUpClass(ITestContext context) {
+		browser = context.getCurrentXmlTest().getParameter("browser");
+		workers = context.getSuite().getXmlSuite().getDataProviderThreadCount();
+		super.setUpClass(context);
+	}
+
+	/**
+	 * Provides the scenarios to TestNG in parallel. The number of concurrent
+	 * scenarios is controlled by data-provider-thread-count in testng.xml. In a
+	 * sharded run (shard.count above 1) only this fork's share of the scenarios
+	 * is provided. Scenarios are served longest first, based on the durations
+	 * in the run history (see {@link ScenarioScheduler}), unless
+	 * scheduler.longestFirst is false.
+	 *
+	 * @return Scenario and feature pairs to execute
+	 */
+	@Override
+	@DataProvider(parallel = true)
+	public Object[][] scenarios() {
+		List<Object[]> scenarios = Arrays.asList(super.scenarios());
+		if (ShardedRun.isFork()) {
+			scenarios = ScenarioScheduler.shard(scenarios, TestRun::shardName, TestRun::outline, browser,
+					ShardedRun.index(), ShardedRun.count());
+		}
+		if (!"false".equalsIgnoreCase(ConfigReader.get("scheduler.longestFirst"))) {
+			scenarios = ScenarioScheduler.longestFirst(scenarios, TestRun::shardName, browser, workers);
+		}
+		return scenarios.toArray(new Object[0][]);
+	}
+
+	/** Shard name of a data provider row (pickle, feature) */
+	private static String shardName(Object[] row) {
+		Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+		return ResultStore.shardName(pickle.getUri(), pickle.getLine());
+	}
+
+	/** Scenario (outline) of a data provider row; example rows share it */
+	private static String outline(Object[] row) {
+		Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+		return pickle.getUri() + ":" + pickle.getScenarioLine();
+	}
+
 	/**
-	 * Cleans up existing Allure report folders before the test suite begins.
+	 * Cleans up existing Allure report folders and result shards before the test
+	 * suite begins. Forks of a sharded run leave this to {@link ShardedRun},
+	 * since they share those folders.
 	 */
 	@BeforeSuite
 	public void cleanReports() {
+		if (ShardedRun.isFork()) {
+			return;
+		}
 		AllureReportCleaner.cleanAllureFolders();
+		ResultStore.clean();
 	}
 
 	/**
-	 * Generates and opens Allure report after the test suite completes.
+	 * Prints where the run spent its waiting time, which call sites needed
+	 * stale-element retries, how the auto-suggestions fared and how many element
+	 * lookups the page cache saved, followed by the fares collected per vehicle
+	 * class and how often test data came from the cache. Then waits for the
+	 * background screenshot writer, reports the flight recordings and retries,
+	 * merges the scenario result shards, and generates and opens Allure report
+	 * after the test suite completes. Last, appends the run's timings to the run history
+	 * and compares them with the previous runs, which fails the suite on a
+	 * regression if history.failOnRegression is true.
+	 *
+	 * Forks of a sharded run only append their timings; {@link ShardedRun}
+	 * merges, compares and opens the report once every fork is done.
 	 */
 	@AfterSuite
 	public void afterSuite() {
+		System.out.println(SmartWait.report());
+		System.out.println(StaleRetry.report());
+		System.out.println(Autocomplete.report());
+		System.out.println(SmartLocatorFactory.report());
+		System.out.println(FareAggregator.run().report());
+		System.out.println(TestDataRepository.report());
+		ScreenshotService.awaitPending();
+		System.out.println(ScreenshotService.report());
+		System.out.println(FlightRecorder.report());
+		System.out.println(RetryPolicy.report());
+		System.out.println(Checkpoint.report());
+		if (ShardedRun.isFork()) {
+			System.out.println(RunHistory.save());
+			return;
+		}
+		System.out.println(ResultStore.merge());
 		AllureReportOpener.openAllureReport();
+		System.out.println(RunHistory.save());
+		System.out.println(RunHistory.compare());
 	}
 }
@@ -0,0 +1,295 @@
+package utilities;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Step-level checkpoints, so a retried scenario resumes after its last
+ * expensive step instead of starting over. Only scenarios tagged
+ * {@code @checkpoint} take part. A step definition calls
+ * {@link #save(WebDriver, Consumer)} once the state it built is reachable
+ * again from a URL: the URL with its search parameters, the cookies, local and
+ * session storage, and the values put with {@link #put(String, String)} are
+ * kept in memory under the scenario's browser and shard name, together with a
+ * check that the state is shown (e.g., the results have loaded).
+ *
+ * When a failed scenario is retried, {@link #begin(WebDriver)} restores the
+ * latest checkpoint into the new session before the first step and runs the
+ * check again. The steps up to and including the one that saved it then return
+ * at once; {@link CheckpointObjectFactory} skips them, so step definitions
+ * need no guard. Cucumber and TestNG always run every step of a scenario
+ * again, so restored steps still show up as passed, only without doing their
+ * work.
+ *
+ * A checkpoint is dropped when its scenario passes, and also when a resumed
+ * attempt fails, so a state that itself causes the failure is only reused
+ * once. If the restored page does not end up on the saved URL (e.g., the site
+ * redirected) or fails the check (e.g., results loaded by script did not come
+ * back), the session is cleared and the scenario runs in full.
+ * checkpoint.resume=false (config.properties) turns checkpoints off.
+ */
+public class Checkpoint {
+
+	private static final Logger log = LogManager.getLogger(Checkpoint.class);
+
+	/** Latest checkpoint of every scenario, by browser and shard name */
+	private static final Map<String, State> saved = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<Progress> progress = new ThreadLocal<>();
+
+	private static final AtomicInteger saves = new AtomicInteger();
+	private static final AtomicInteger restores = new AtomicInteger();
+	private static final AtomicInteger fallbacks = new AtomicInteger();
+	private static final AtomicInteger stepsSkipped = new AtomicInteger();
+	private static final AtomicLong savedMillis = new AtomicLong();
+
+	private static final String READ_STORAGE = "var s = {}; try { s = Object.assign({}, window[arguments[0]]); } "
+			+ "catch (e) {} return JSON.stringify(s);";
+
+	private static final String WRITE_STORAGE = "var d = JSON.parse(arguments[1]); "
+			+ "for (var k in d) { window[arguments[0]].setItem(k, d[k]); }";
+
+	/**
+	 * State of a scenario after one of its steps.
+	 */
+	private static class State {
+		int step;
+		String url;
+		Set<Cookie> cookies;
+		String localStorage;
+		String sessionStorage;
+		Map<String, String> data;
+		/** Waits until the saved state is shown, throws if it is not */
+		Consumer<WebDriver> ready;
+		/** Time the scenario took to reach the checkpoint */
+		long millis;
+	}
+
+	/**
+	 * Checkpoint bookkeeping of the scenario running on a thread.
+	 */
+	private static class Progress {
+		final String key;
+		final long startMillis = System.currentTimeMillis();
+		final Map<String, String> data = new HashMap<>();
+		int step;
+		/** Last step restored from a checkpoint; 0 when the scenario runs in full */
+		int resumeAfter;
+
+		Progress(String key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Starts checkpointing the scenario bound to the current thread (see
+	 * {@link RunContext}). If the scenario has a checkpoint from a failed
+	 * attempt, it is restored into the given session. Called for scenarios
+	 * tagged {@code @checkpoint} only.
+	 *
+	 * @param driver Browser session of the scenario, positioned on the base URL
+	 * @return A note for the scenario log when a checkpoint was restored or
+	 *         could not be, otherwise null
+	 */
+	public static String begin(WebDriver driver) {
+		Progress current = new Progress(RunContext.getBrowser() + " " + RunContext.getShard());
+		progress.set(current);
+		State state = saved.get(current.key);
+		if (state == null || driver == null || !enabled()) {
+			return null;
+		}
+		long start = System.currentTimeMillis();
+		if (!restore(driver, state)) {
+			saved.remove(current.key);
+			fallbacks.incrementAndGet();
+			clear(driver);
+			return "Checkpoint after step " + state.step + " could not be restored, running all steps";
+		}
+		long restoreMillis = System.currentTimeMillis() - start;
+		current.resumeAfter = state.step;
+		current.data.putAll(state.data);
+		restores.incrementAndGet();
+		stepsSkipped.addAndGet(state.step);
+		savedMillis.addAndGet(Math.max(0, state.millis - restoreMillis));
+		return "Resumed from the checkpoint after step " + state.step + " (" + state.url + ", restored in "
+				+ restoreMillis + " ms)";
+	}
+
+	/**
+	 * Counts the step about to run. Called before every step of a
+	 * {@code @checkpoint} scenario.
+	 */
+	public static void stepStarting() {
+		Progress current = progress.get();
+		if (current != null) {
+			current.step++;
+		}
+	}
+
+	/**
+	 * @return true if the running step was restored from a checkpoint and must
+	 *         not do its work again
+	 */
+	public static boolean skip() {
+		Progress current = progress.get();
+		return current != null && current.step <= current.resumeAfter;
+	}
+
+	/**
+	 * @return true if the scenario on the current thread resumed from a
+	 *         checkpoint
+	 */
+	public static boolean isResumed() {
+		Progress current = progress.get();
+		return current != null && current.resumeAfter > 0;
+	}
+
+	/**
+	 * Keeps a value that later steps need, so it survives a restore.
+	 *
+	 * @param name  Name of the value
+	 * @param value The value
+	 */
+	public static void put(String name, String value) {
+		Progress current = progress.get();
+		if (current != null) {
+			current.data.put(name, value);
+		}
+	}
+
+	/**
+	 * @param name Name of the value
+	 * @return A value kept with {@link #put(String, String)}, or null
+	 */
+	public static String get(String name) {
+		Progress current = progress.get();
+		return current == null ? null : current.data.get(name);
+	}
+
+	/**
+	 * Waits until the state the running step built is shown, then saves the
+	 * session as the scenario's checkpoint after that step. Call it at the end
+	 * of an expensive step. Outside a {@code @checkpoint} scenario only the
+	 * check runs.
+	 *
+	 * @param driver Browser session of the scenario
+	 * @param ready  Waits until the state is shown in a session and throws if it
+	 *               is not; run now, and again after every restore
+	 */
+	public static void save(WebDriver driver, Consumer<WebDriver> ready) {
+		ready.accept(driver);
+		Progress current = progress.get();
+		if (current == null || !enabled() || skip()) {
+			return;
+		}
+		try {
+			State state = new State();
+			state.step = current.step;
+			state.url = driver.getCurrentUrl();
+			state.cookies = driver.manage().getCookies();
+			state.localStorage = (String) ((JavascriptExecutor) driver).executeScript(READ_STORAGE, "localStorage");
+			state.sessionStorage = (String) ((JavascriptExecutor) driver).executeScript(READ_STORAGE,
+					"sessionStorage");
+			state.data = new HashMap<>(current.data);
+			state.ready = ready;
+			state.millis = System.currentTimeMillis() - current.startMillis;
+			saved.put(current.key, state);
+			saves.incrementAndGet();
+		} catch (WebDriverException e) {
+			log.warn("Checkpoint of " + current.key + " not saved: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Ends checkpointing of the scenario on the current thread. The checkpoint
+	 * is kept for a retry only if the scenario failed without having resumed.
+	 *
+	 * @param failed true if the scenario failed
+	 */
+	public static void end(boolean failed) {
+		Progress current = progress.get();
+		progress.remove();
+		if (current != null && (!failed || current.resumeAfter > 0)) {
+			saved.remove(current.key);
+		}
+	}
+
+	/**
+	 * @return Checkpoints saved and restored, and the time restores saved
+	 */
+	public static String report() {
+		return "Checkpoints: " + saves.get() + " saved, " + restores.get() + " retries resumed ("
+				+ stepsSkipped.get() + " steps skipped, ~" + savedMillis.get() / 1000 + " s saved), "
+				+ fallbacks.get() + " could not be restored";
+	}
+
+	/**
+	 * Puts a saved state into the session: cookies and storage on the saved
+	 * URL's origin, then the URL itself, and checks that the state is shown.
+	 *
+	 * @return true if the session ended up on the saved URL and passed the
+	 *         state's check
+	 */
+	private static boolean restore(WebDriver driver, State state) {
+		try {
+			URI target = URI.create(state.url);
+			if (target.getScheme() == null || target.getAuthority() == null) {
+				log.warn("Checkpoint URL has no origin: " + state.url);
+				return false;
+			}
+			String origin = target.getScheme() + "://" + target.getAuthority();
+			String current = driver.getCurrentUrl();
+			if (current == null || !(current.equals(origin) || current.startsWith(origin + "/"))) {
+				driver.get(origin + "/");
+			}
+			for (Cookie cookie : state.cookies) {
+				try {
+					driver.manage().addCookie(cookie);
+				} catch (WebDriverException e) {
+					// Cookies of other domains cannot be set from this page
+				}
+			}
+			((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, "localStorage", state.localStorage);
+			((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, "sessionStorage", state.sessionStorage);
+			driver.get(state.url);
+			if (!state.url.equals(driver.getCurrentUrl())) {
+				log.warn("Restoring checkpoint " + state.url + " landed on " + driver.getCurrentUrl());
+				return false;
+			}
+			state.ready.accept(driver);
+			return true;
+		} catch (WebDriverException | IllegalArgumentException | AssertionError e) {
+			log.warn("Restoring checkpoint " + state.url + " failed: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/** Clears a partly restored session and goes back to the base URL */
+	private static void clear(WebDriver driver) {
+		try {
+			((JavascriptExecutor) driver)
+					.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+			driver.manage().deleteAllCookies();
+			driver.get(ConfigReader.get("baseURL"));
+		} catch (WebDriverException e) {
+			log.warn("Clearing session after a failed restore failed: " + e.getMessage());
+		}
+	}
+
+	private static boolean enabled() {
+		return !"false".equalsIgnoreCase(ConfigReader.get("checkpoint.resume"));
+	}
+}
@@ -0,0 +1,116 @@
+package utilities;
+
+import static net.bytebuddy.matcher.ElementMatchers.isAnnotatedWith;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.cucumber.core.backend.CucumberBackendException;
+import io.cucumber.core.backend.ObjectFactory;
+import io.cucumber.java.StepDefinitionAnnotation;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+
+/**
+ * Cucumber object factory that creates the glue objects (step definitions and
+ * hooks) and decides in one place which steps a resumed scenario skips. Glue
+ * classes with step definitions are instantiated as generated subclasses whose
+ * step methods return at once while {@link Checkpoint#skip()} is true, i.e.
+ * while the running step was restored from a checkpoint. Step definitions
+ * therefore need no guard of their own; everything else about them is
+ * unchanged.
+ *
+ * Like Cucumber's default factory, it creates one instance per glue class and
+ * scenario, using the public no-argument constructor. Registered with
+ * {@code objectFactory} in the {@code @CucumberOptions} of
+ * {@link testRunner.TestRun}.
+ */
+public class CheckpointObjectFactory implements ObjectFactory {
+
+	/** Generated subclass of every glue class with step definitions */
+	private static final Map<Class<?>, Class<?>> skipping = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, Object> instances = new HashMap<>();
+
+	@Override
+	public void start() {
+		// Instances are created on first use
+	}
+
+	@Override
+	public void stop() {
+		instances.clear();
+	}
+
+	@Override
+	public boolean addClass(Class<?> glueClass) {
+		return true;
+	}
+
+	@Override
+	public <T> T getInstance(Class<T> glueClass) {
+		Object instance = instances.get(glueClass);
+		if (instance == null) {
+			instance = create(glueClass);
+			instances.put(glueClass, instance);
+		}
+		return glueClass.cast(instance);
+	}
+
+	private static Object create(Class<?> glueClass) {
+		Class<?> type = hasSteps(glueClass) ? skipping.computeIfAbsent(glueClass, CheckpointObjectFactory::subclass)
+				: glueClass;
+		try {
+			return type.getConstructor().newInstance();
+		} catch (InvocationTargetException e) {
+			throw new CucumberBackendException("Failed to instantiate " + glueClass, e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new CucumberBackendException(glueClass + " needs a public no-argument constructor", e);
+		}
+	}
+
+	private static boolean hasSteps(Class<?> glueClass) {
+		for (Method method : glueClass.getMethods()) {
+			for (Annotation annotation : method.getAnnotations()) {
+				if (annotation.annotationType().isAnnotationPresent(StepDefinitionAnnotation.class)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/** Subclass whose step methods go through {@link SkipRestored} */
+	private static Class<?> subclass(Class<?> glueClass) {
+		return new ByteBuddy().subclass(glueClass)
+				.method(isAnnotatedWith(isAnnotatedWith(StepDefinitionAnnotation.class)))
+				.intercept(MethodDelegation.to(SkipRestored.class))
+				.make()
+				.load(glueClass.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+				.getLoaded();
+	}
+
+	/**
+	 * Runs a step method unless the step was restored from a checkpoint.
+	 */
+	public static class SkipRestored {
+
+		/**
+		 * @param step The step method of the glue class
+		 * @return What the step returned, or null if it was skipped
+		 * @throws Exception whatever the step throws
+		 */
+		@RuntimeType
+		public static Object run(@SuperCall Callable<?> step) throws Exception {
+			return Checkpoint.skip() ? null : step.call();
+		}
+	}
+}
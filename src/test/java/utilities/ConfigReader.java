@@ -0,0 +1,65 @@
+package utilities;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Utility class for reading config.properties. The file is loaded once and
+ * shared by every thread; System properties with the same key take precedence
+ * so values can be overridden from the Maven command line.
+ */
+public class ConfigReader {
+
+	private static Properties p;
+
+	/**
+	 * Loads config.properties on first use and returns the shared properties.
+	 *
+	 * @return Properties loaded from src/test/resources/data/config.properties
+	 */
+	public static synchronized Properties getProperties() {
+		if (p == null) {
+			Properties loaded = new Properties();
+			try (FileReader file = new FileReader(
+					System.getProperty("user.dir") + "/src/test/resources/data/config.properties")) {
+				loaded.load(file);
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to read config.properties", e);
+			}
+			p = loaded;
+		}
+		return p;
+	}
+
+	/**
+	 * Returns the trimmed value of a configuration key.
+	 *
+	 * @param key Property name
+	 * @return Property value, or null if the key is not defined
+	 */
+	public static String get(String key) {
+		String value = System.getProperty(key, getProperties().getProperty(key));
+		return value == null ? null : value.trim();
+	}
+
+	/**
+	 * Returns a configuration value as an integer.
+	 *
+	 * @param key          Property name
+	 * @param defaultValue Value used when the key is missing or not a number
+	 * @return Parsed integer value
+	 */
+	public static int getInt(String key, int defaultValue) {
+		String value = get(key);
+		if (value == null || value.isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			System.out.println("Invalid number for " + key + ": " + value);
+			return defaultValue;
+		}
+	}
+}
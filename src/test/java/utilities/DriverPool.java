@@ -0,0 +1,308 @@
+package utilities;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Thread-confined pool of pre-warmed WebDriver sessions. Every scenario thread
+ * borrows its own browser session, so scenarios running on parallel TestNG
+ * data-provider threads never share a browser.
+ *
+ * Sessions are launched in the background at suite start and reused between
+ * scenarios: instead of quitting, a returned session is reset (cookies and web
+ * storage cleared, base URL reloaded). A session is recycled after
+ * pool.maxScenariosPerSession scenarios or as soon as a reset fails. Launch,
+ * reset and recycle counts are printed when the pool shuts down.
+ */
+public class DriverPool {
+
+	private static final Logger log = LogManager.getLogger(DriverPool.class);
+
+	/** Session currently owned by the calling thread */
+	private static final ThreadLocal<PooledSession> current = new ThreadLocal<>();
+
+	/** Idle sessions waiting to be borrowed, per browser */
+	private static final Map<String, BlockingDeque<PooledSession>> idle = new ConcurrentHashMap<>();
+
+	/** Every live session launched by the pool, per browser */
+	private static final Map<String, Set<PooledSession>> sessions = new ConcurrentHashMap<>();
+
+	/** Background launches that have not completed yet, per browser */
+	private static final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+
+	/** Browsers whose pool has been shut down */
+	private static final Set<String> closed = ConcurrentHashMap.newKeySet();
+
+	private static final ExecutorService launcher = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "driver-pool-launcher");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private static final AtomicInteger launches = new AtomicInteger();
+	private static final AtomicInteger resets = new AtomicInteger();
+	private static final AtomicInteger recycles = new AtomicInteger();
+	private static final AtomicLong launchMillis = new AtomicLong();
+	private static final AtomicLong resetMillis = new AtomicLong();
+
+	/**
+	 * Starts launching sessions in the background so they are ready by the time
+	 * the first scenarios ask for them.
+	 *
+	 * @param browser Browser name ("chrome" or "edge")
+	 * @param count   Number of sessions to keep warm
+	 */
+	public static void prewarm(String browser, int count) {
+		String key = browser.toLowerCase();
+		closed.remove(key);
+		int missing = count - liveSessions(key).size() - pendingLaunches(key).get();
+		for (int i = 0; i < missing; i++) {
+			launchInBackground(browser);
+		}
+		if (missing > 0) {
+			log.info("Pre-warming " + missing + " " + key + " session(s).");
+		}
+	}
+
+	/**
+	 * Binds a browser session to the calling thread. A warm session is reused
+	 * when one is available; if sessions are still starting up the call waits for
+	 * one of them, otherwise a new session is launched on the calling thread.
+	 *
+	 * @param browser Browser name ("chrome" or "edge")
+	 * @return WebDriver owned by the calling thread, positioned on the base URL
+	 * @throws IOException if the browser configuration cannot be loaded
+	 */
+	public static WebDriver acquire(String browser) throws IOException {
+		PooledSession session = current.get();
+		if (session != null) {
+			return session.driver;
+		}
+
+		String key = browser.toLowerCase();
+		BlockingDeque<PooledSession> queue = idleSessions(key);
+		session = queue.pollFirst();
+		while (session == null && pendingLaunches(key).get() > 0) {
+			try {
+				session = queue.pollFirst(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		if (session == null) {
+			session = launch(browser);
+		}
+
+		current.set(session);
+		return session.driver;
+	}
+
+	/**
+	 * Returns the session owned by the calling thread.
+	 *
+	 * @return WebDriver of the current scenario, or null if none was acquired
+	 */
+	public static WebDriver getDriver() {
+		PooledSession session = current.get();
+		return session == null ? null : session.driver;
+	}
+
+	/**
+	 * Hands the calling thread's session back to the pool. The session is reset
+	 * for the next scenario, or recycled if it has reached its scenario limit or
+	 * cannot be reset.
+	 */
+	public static void release() {
+		PooledSession session = current.get();
+		current.remove();
+		if (session == null) {
+			return;
+		}
+
+		session.scenarios++;
+		int maxScenarios = ConfigReader.getInt("pool.maxScenariosPerSession", 10);
+		if (closed.contains(session.browserKey)) {
+			quit(session);
+		} else if (session.scenarios >= maxScenarios) {
+			recycle(session, "served " + session.scenarios + " scenarios");
+		} else if (!reset(session)) {
+			recycle(session, "reset failed");
+		} else {
+			idleSessions(session.browserKey).offerFirst(session);
+		}
+	}
+
+	/**
+	 * Quits every session launched for the given browser and prints the pool
+	 * statistics.
+	 *
+	 * @param browser Browser name whose sessions should be closed
+	 */
+	public static void shutdown(String browser) {
+		String key = browser.toLowerCase();
+		closed.add(key);
+		idle.remove(key);
+		Set<PooledSession> launched = sessions.remove(key);
+		if (launched != null) {
+			for (PooledSession session : launched) {
+				quit(session);
+			}
+			System.out.println("Closed " + launched.size() + " " + key + " session(s).");
+		}
+		System.out.println(stats());
+	}
+
+	/**
+	 * Summarises pool activity and the startup time saved by resetting sessions
+	 * instead of relaunching them.
+	 *
+	 * @return Human readable pool statistics
+	 */
+	public static String stats() {
+		int launched = launches.get();
+		int reset = resets.get();
+		long avgLaunch = launched == 0 ? 0 : launchMillis.get() / launched;
+		long avgReset = reset == 0 ? 0 : resetMillis.get() / reset;
+		long saved = reset * Math.max(0, avgLaunch - avgReset);
+		return "Driver pool: " + launched + " launches (avg " + avgLaunch + " ms), " + reset + " resets (avg "
+				+ avgReset + " ms), " + recycles.get() + " recycles, ~" + saved + " ms of startup saved";
+	}
+
+	/**
+	 * Launches a session, navigates it to the base URL and registers it with the
+	 * pool. The session is decorated so its {@link PageEpoch} is tracked.
+	 */
+	private static PooledSession launch(String browser) throws IOException {
+		long start = System.currentTimeMillis();
+		WebDriver raw = new DriverSetup().intializeWebDriver(browser);
+		if (raw == null) {
+			throw new IllegalStateException("Unable to launch a session for browser: " + browser);
+		}
+		WebDriver driver = PageEpoch.track(raw);
+		PooledSession session = new PooledSession(browser, driver);
+		liveSessions(session.browserKey).add(session);
+		try {
+			driver.get(ConfigReader.get("baseURL"));
+		} catch (WebDriverException e) {
+			quit(session);
+			throw e;
+		}
+		launches.incrementAndGet();
+		launchMillis.addAndGet(System.currentTimeMillis() - start);
+		return session;
+	}
+
+	/**
+	 * Launches a session on the background executor and parks it in the idle
+	 * queue once it is ready.
+	 */
+	private static void launchInBackground(String browser) {
+		String key = browser.toLowerCase();
+		AtomicInteger inFlight = pendingLaunches(key);
+		inFlight.incrementAndGet();
+		launcher.execute(() -> {
+			try {
+				PooledSession session = launch(browser);
+				if (closed.contains(key)) {
+					quit(session);
+				} else {
+					idleSessions(key).offerLast(session);
+				}
+			} catch (Exception e) {
+				log.warn("Background launch of " + key + " session failed: " + e.getMessage());
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+	}
+
+	/**
+	 * Cheaply returns a session to a clean state: web storage and cookies are
+	 * cleared and the base URL is reloaded.
+	 *
+	 * @return true if the session responded to every reset command
+	 */
+	private static boolean reset(PooledSession session) {
+		long start = System.currentTimeMillis();
+		try {
+			((JavascriptExecutor) session.driver)
+					.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+			session.driver.manage().deleteAllCookies();
+			session.driver.get(ConfigReader.get("baseURL"));
+		} catch (WebDriverException e) {
+			log.warn("Reset of " + session.browserKey + " session failed: " + e.getMessage());
+			return false;
+		}
+		resets.incrementAndGet();
+		resetMillis.addAndGet(System.currentTimeMillis() - start);
+		return true;
+	}
+
+	/**
+	 * Quits a worn-out or unhealthy session and starts its replacement in the
+	 * background.
+	 */
+	private static void recycle(PooledSession session, String reason) {
+		log.info("Recycling " + session.browserKey + " session: " + reason);
+		recycles.incrementAndGet();
+		quit(session);
+		launchInBackground(session.browser);
+	}
+
+	private static void quit(PooledSession session) {
+		Set<PooledSession> launched = sessions.get(session.browserKey);
+		if (launched != null) {
+			launched.remove(session);
+		}
+		PageEpoch.untrack(session.driver);
+		try {
+			session.driver.quit();
+		} catch (WebDriverException e) {
+			// Session is already gone
+		}
+	}
+
+	private static BlockingDeque<PooledSession> idleSessions(String key) {
+		return idle.computeIfAbsent(key, k -> new LinkedBlockingDeque<>());
+	}
+
+	private static Set<PooledSession> liveSessions(String key) {
+		return sessions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+	}
+
+	private static AtomicInteger pendingLaunches(String key) {
+		return pending.computeIfAbsent(key, k -> new AtomicInteger());
+	}
+
+	/**
+	 * A browser session together with its pool bookkeeping.
+	 */
+	private static class PooledSession {
+		final String browser;
+		final String browserKey;
+		final WebDriver driver;
+		int scenarios;
+
+		PooledSession(String browser, WebDriver driver) {
+			this.browser = browser;
+			this.browserKey = browser.toLowerCase();
+			this.driver = driver;
+		}
+	}
+}
@@ -9,8 +9,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -27,8 +25,6 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 public class DriverSetup {
 	Properties p;
 	private WebDriver driver;
-	static Logger logger;
-	static String browser;
 
 	/**
 	 * Initializes a WebDriver instance based on execution environment and browser
@@ -116,22 +112,13 @@ public class DriverSetup {
 
 		driver.manage().window().maximize();
 		driver.manage().deleteAllCookies();
-		driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+		// No implicit wait: page objects wait explicitly through SmartWait
+		driver.manage().timeouts().implicitlyWait(Duration.ZERO);
 
 		System.out.println("WebDriver setup complete for: " + browser);
 		return driver;
 	}
 
-	/**
-	 * Returns a logger instance using Log4j.
-	 *
-	 * @return Logger object for logging
-	 */
-	public static Logger getLogger() {
-		logger = LogManager.getLogger();
-		return logger;
-	}
-
 	/**
 	 * Terminates the browser session and quits WebDriver.
 	 */
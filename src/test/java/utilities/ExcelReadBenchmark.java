@@ -0,0 +1,150 @@
+package utilities;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Compares the DOM reader that ExcelUtils used before (full XSSFWorkbook) with
+ * the {@link StreamingExcelReader}. Generates data sheets shaped like
+ * AirportCab with 1k, 10k and 100k rows under target/excel-benchmark/, reads
+ * each with both readers and prints the load time and peak heap of each.
+ *
+ * Usage: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=utilities.ExcelReadBenchmark [-Dexec.args="1000 10000"]}
+ * Run with a fixed heap (e.g., MAVEN_OPTS=-Xmx2g) so runs are comparable. The
+ * peak heap includes garbage that was not collected yet, so it is an upper
+ * bound of what each reader needs.
+ */
+public class ExcelReadBenchmark {
+
+	private static final String DIR = "target/excel-benchmark";
+	private static final String SHEET = "AirportCab";
+	private static final String[] HEADERS = { "TestCaseID", "Type", "From", "To", "Date", "Time", "Results" };
+
+	/**
+	 * @param args Row counts to benchmark (default 1000 10000 100000)
+	 * @throws IOException if a workbook cannot be written or read
+	 */
+	public static void main(String[] args) throws IOException {
+		int[] sizes = args.length == 0 ? new int[] { 1_000, 10_000, 100_000 } : new int[args.length];
+		for (int i = 0; i < args.length; i++) {
+			sizes[i] = Integer.parseInt(args[i]);
+		}
+		new File(DIR).mkdirs();
+
+		System.out.println(String.format("%-8s %-10s %10s %12s", "rows", "reader", "ms", "peak heap MB"));
+		for (int rows : sizes) {
+			String path = generate(rows);
+			// Warm up both readers once so class loading is not measured
+			domRead(path);
+			StreamingExcelReader.readAll(path, SHEET);
+
+			measure(rows, "dom", () -> domRead(path).size());
+			measure(rows, "streaming", () -> StreamingExcelReader.readAll(path, SHEET).size());
+			measure(rows, "find-last", () -> StreamingExcelReader.find(path, SHEET, "TC" + rows) == null ? 0 : 1);
+		}
+	}
+
+	/**
+	 * A read whose result size is reported.
+	 */
+	@FunctionalInterface
+	private interface Read {
+		int run() throws IOException;
+	}
+
+	private static void measure(int rows, String reader, Read read) throws IOException {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+		long start = System.nanoTime();
+		int readRows = read.run();
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		System.out.println(String.format("%-8d %-10s %10d %12d   (%d rows)", rows, reader, millis,
+				peak / (1024 * 1024), readRows));
+	}
+
+	/**
+	 * Writes a data sheet with the given number of rows, streaming it so large
+	 * sizes can be generated quickly.
+	 */
+	private static String generate(int rows) throws IOException {
+		File file = new File(DIR, "AirportCab-" + rows + ".xlsx");
+		if (file.exists()) {
+			return file.getPath();
+		}
+		try (SXSSFWorkbook wb = new SXSSFWorkbook(100); OutputStream os = new FileOutputStream(file)) {
+			Sheet sheet = wb.createSheet(SHEET);
+			Row header = sheet.createRow(0);
+			for (int c = 0; c < HEADERS.length; c++) {
+				header.createCell(c).setCellValue(HEADERS[c]);
+			}
+			for (int r = 1; r <= rows; r++) {
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue("TC" + r);
+				row.createCell(1).setCellValue(r % 2 == 0 ? "Pickup" : "Drop");
+				row.createCell(2).setCellValue("Mumbai Airport (BOM)");
+				row.createCell(3).setCellValue("Andheri East, Mumbai " + r);
+				row.createCell(4).setCellValue("15/Aug/2025");
+				row.createCell(5).setCellValue("10:30 AM");
+				row.createCell(6).setCellValue(r % 3 == 0 ? "names and prices" : "lowest price");
+			}
+			wb.write(os);
+		}
+		return file.getPath();
+	}
+
+	/**
+	 * The reader ExcelUtils.getData used before: the whole workbook as a DOM.
+	 */
+	private static Map<String, Map<String, String>> domRead(String path) throws IOException {
+		Map<String, Map<String, String>> dataMap = new HashMap<>();
+		DataFormatter formatter = new DataFormatter();
+		try (InputStream is = new FileInputStream(path); XSSFWorkbook wb = new XSSFWorkbook(is)) {
+			XSSFSheet ws = wb.getSheet(SHEET);
+			XSSFRow headerRow = ws.getRow(0);
+			for (int i = 1; i <= ws.getLastRowNum(); i++) {
+				XSSFRow rData = ws.getRow(i);
+				if (rData == null || rData.getCell(0) == null || rData.getCell(0).getCellType() == CellType.BLANK) {
+					continue;
+				}
+				Map<String, String> rowData = new HashMap<>();
+				for (int j = 1; j < rData.getLastCellNum(); j++) {
+					XSSFCell cell = rData.getCell(j);
+					rowData.put(formatter.formatCellValue(headerRow.getCell(j)).trim(),
+							cell == null ? "" : formatter.formatCellValue(cell).trim());
+				}
+				dataMap.put(formatter.formatCellValue(rData.getCell(0)).trim(), rowData);
+			}
+		}
+		return dataMap;
+	}
+}
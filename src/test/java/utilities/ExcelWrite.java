@@ -1,43 +1,72 @@
 package utilities;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 /**
- * Utility class for writing data to Excel (.xlsx) files. Supports adding cell
- * values, coloring cells, and saving changes using Apache POI.
+ * Utility class for writing test results to a results workbook (.xlsx).
+ * Supports adding cell values, coloring cells, and saving using Apache POI's
+ * streaming SXSSF API: only the last {@value #ROW_WINDOW} rows are kept in
+ * memory and older rows are flushed to a temp file, so large result sheets are
+ * written in constant memory.
+ *
+ * Results go to a workbook of their own in the current scenario's result shard
+ * (see {@link RunContext#resultFile(String)}); the input data workbooks are
+ * never rewritten. Rows must be written in ascending order, and a row can only
+ * be changed while it is within the window. One cell style is created per fill
+ * color and shared by every cell with that color.
  */
 public class ExcelWrite {
-	private XSSFWorkbook workbook;
-	private Sheet sheet;
-	private String filePath;
+
+	/** Number of rows kept in memory before older rows are flushed */
+	static final int ROW_WINDOW = 100;
+
+	private final SXSSFWorkbook workbook;
+	private final SXSSFSheet sheet;
+	private final String fileName;
+	private final Map<IndexedColors, CellStyle> fillStyles = new EnumMap<>(IndexedColors.class);
 
 	/**
-	 * Constructor that loads an existing Excel file and accesses (or creates) a
-	 * specific sheet.
+	 * Creates an empty results workbook with one sheet.
 	 *
-	 * @param filePath  Path to the Excel file
-	 * @param sheetName Sheet name to modify or create
-	 * @throws IOException If the file can't be read or created
+	 * @param fileName  Name of the results workbook (e.g.,
+	 *                  "AirportCabsResults.xlsx")
+	 * @param sheetName Name of the results sheet
 	 */
-	public ExcelWrite(String filePath, String sheetName) throws IOException {
-		this.filePath = filePath;
-		FileInputStream fis = new FileInputStream(filePath);
-		workbook = new XSSFWorkbook(fis);
-		sheet = workbook.getSheet(sheetName);
-		if (sheet == null) {
-			sheet = workbook.createSheet(sheetName);
-		}
-		fis.close();
+	public ExcelWrite(String fileName, String sheetName) {
+		this.fileName = fileName;
+		this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+		this.sheet = workbook.createSheet(sheetName);
+	}
+
+	/**
+	 * Creates a results workbook with one sheet whose first row holds the column
+	 * headers. Headers must be written up front, since row 0 is flushed once
+	 * more than {@value #ROW_WINDOW} rows follow it.
+	 *
+	 * @param fileName  Name of the results workbook (e.g.,
+	 *                  "AirportCabsResults.xlsx")
+	 * @param sheetName Name of the results sheet
+	 * @param headers   Column headers, starting at the first column
+	 */
+	public ExcelWrite(String fileName, String sheetName, String... headers) {
+		this(fileName, sheetName);
+		writeRow(0, headers);
 	}
 
 	/**
@@ -46,17 +75,23 @@ public class ExcelWrite {
 	 * @param rownum  Row index (0-based)
 	 * @param cellnum Column index (0-based)
 	 * @param value   String value to set
+	 * @throws IllegalStateException if the row was already flushed
 	 */
 	public void setCellValue(int rownum, int cellnum, String value) {
-		Row row = sheet.getRow(rownum);
-		if (row == null) {
-			row = sheet.createRow(rownum);
-		}
-		Cell cell = row.getCell(cellnum);
-		if (cell == null) {
-			cell = row.createCell(cellnum);
+		cell(rownum, cellnum).setCellValue(value);
+	}
+
+	/**
+	 * Writes a whole row of values, starting at the first column.
+	 *
+	 * @param rownum Row index (0-based)
+	 * @param values Values of the row's cells
+	 * @throws IllegalStateException if the row was already flushed
+	 */
+	public void writeRow(int rownum, String... values) {
+		for (int i = 0; i < values.length; i++) {
+			cell(rownum, i).setCellValue(values[i]);
 		}
-		cell.setCellValue(value);
 	}
 
 	/**
@@ -80,37 +115,61 @@ public class ExcelWrite {
 	}
 
 	/**
-	 * Internal method to fill a cell with a given color.
+	 * Internal method to fill a cell with a given color, reusing the color's
+	 * style.
 	 *
 	 * @param rownum  Row index
 	 * @param cellnum Column index
 	 * @param color   Excel color from IndexedColors enum
 	 */
 	private void fillCellColor(int rownum, int cellnum, IndexedColors color) {
+		CellStyle style = fillStyles.computeIfAbsent(color, c -> {
+			CellStyle fill = workbook.createCellStyle();
+			fill.setFillForegroundColor(c.getIndex());
+			fill.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+			return fill;
+		});
+		cell(rownum, cellnum).setCellStyle(style);
+	}
+
+	private Cell cell(int rownum, int cellnum) {
 		Row row = sheet.getRow(rownum);
 		if (row == null) {
+			if (rownum <= sheet.getLastFlushedRowNum()) {
+				throw new IllegalStateException("Row " + rownum + " of " + fileName
+						+ " was already flushed; write rows in ascending order");
+			}
 			row = sheet.createRow(rownum);
 		}
 		Cell cell = row.getCell(cellnum);
 		if (cell == null) {
 			cell = row.createCell(cellnum);
 		}
-
-		CellStyle style = workbook.createCellStyle();
-		style.setFillForegroundColor(color.getIndex());
-		style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-		cell.setCellStyle(style);
+		return cell;
 	}
 
 	/**
-	 * Saves changes to the Excel file and closes the workbook.
+	 * Saves the results workbook through a temp file and releases the flushed
+	 * rows.
 	 *
 	 * @throws IOException If saving to the file fails
 	 */
 	public void save() throws IOException {
-		FileOutputStream fos = new FileOutputStream(filePath);
-		workbook.write(fos);
-		fos.close();
-		workbook.close();
+		File out = RunContext.resultFile(fileName);
+		Path temp = Files.createTempFile(out.getParentFile().toPath(), out.getName(), ".tmp");
+		try {
+			try (OutputStream os = Files.newOutputStream(temp)) {
+				workbook.write(os);
+			}
+			try {
+				Files.move(temp, out.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, out.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+			// Also deletes the temp files of the flushed rows
+			workbook.close();
+		}
 	}
 }
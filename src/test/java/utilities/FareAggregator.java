@@ -0,0 +1,211 @@
+package utilities;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running fare statistics per vehicle class (e.g., "SUV", "Sedan"; listing
+ * names are mapped to their class with {@link VehicleClass}). Fares are added
+ * as result rows are read, and the lowest, highest, mean and percentile fares
+ * can be asked for at any time without keeping the rows.
+ *
+ * Percentiles come from a histogram with one counter per rupee, which grows
+ * only as far as the highest fare seen, so they are exact to the rupee. The
+ * aggregator is thread-safe; {@link #run()} is shared by every scenario and
+ * printed at the end of the suite.
+ */
+public class FareAggregator {
+
+	private static final FareAggregator RUN = new FareAggregator();
+
+	private final Map<String, Stats> classes = new ConcurrentHashMap<>();
+
+	/**
+	 * @return Aggregator shared by every scenario of the run
+	 */
+	public static FareAggregator run() {
+		return RUN;
+	}
+
+	/**
+	 * Adds a fare to its vehicle class.
+	 *
+	 * @param vehicleClass Vehicle class name
+	 * @param fare         Fare to add
+	 */
+	public void add(String vehicleClass, Fare fare) {
+		classes.computeIfAbsent(vehicleClass, k -> new Stats()).add(fare.paise());
+	}
+
+	/**
+	 * Parses a scraped price text and adds it to its vehicle class.
+	 *
+	 * @param vehicleClass Vehicle class name
+	 * @param priceText    Price text (e.g., "₹ 5,821")
+	 * @return false if the text holds no fare
+	 */
+	public boolean add(String vehicleClass, CharSequence priceText) {
+		long paise = Fare.parsePaise(priceText);
+		if (paise == Fare.NO_FARE) {
+			return false;
+		}
+		classes.computeIfAbsent(vehicleClass, k -> new Stats()).add(paise);
+		return true;
+	}
+
+	/**
+	 * @param vehicleClass Vehicle class name
+	 * @return Statistics of the class, or null if no fare was added for it
+	 */
+	public Stats stats(String vehicleClass) {
+		return classes.get(vehicleClass);
+	}
+
+	/**
+	 * @return Lowest fare over every class, or null if no fare was added
+	 */
+	public Fare lowest() {
+		Fare lowest = null;
+		for (Stats stats : classes.values()) {
+			Fare min = stats.min();
+			if (min != null && (lowest == null || min.compareTo(lowest) < 0)) {
+				lowest = min;
+			}
+		}
+		return lowest;
+	}
+
+	/**
+	 * @return Vehicle class with the lowest fare, or null if no fare was added
+	 */
+	public String lowestClass() {
+		String lowestClass = null;
+		Fare lowest = null;
+		for (Map.Entry<String, Stats> entry : classes.entrySet()) {
+			Fare min = entry.getValue().min();
+			if (min != null && (lowest == null || min.compareTo(lowest) < 0)) {
+				lowest = min;
+				lowestClass = entry.getKey();
+			}
+		}
+		return lowestClass;
+	}
+
+	/**
+	 * @return One line per vehicle class, in class name order
+	 */
+	public String report() {
+		if (classes.isEmpty()) {
+			return "Fare report: no fares collected";
+		}
+		StringBuilder sb = new StringBuilder("Fare report:");
+		for (Map.Entry<String, Stats> entry : new TreeMap<>(classes).entrySet()) {
+			sb.append(System.lineSeparator()).append("  ").append(entry.getKey()).append(": ")
+					.append(entry.getValue());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Fare statistics of one vehicle class.
+	 */
+	public static class Stats {
+
+		/** Fares above this many rupees are counted but left out of the histogram */
+		private static final int MAX_HISTOGRAM_RUPEES = 1_000_000;
+
+		private long count;
+		private long sumPaise;
+		private long minPaise = Long.MAX_VALUE;
+		private long maxPaise = Long.MIN_VALUE;
+		private int[] rupeeCounts = new int[1024];
+		private long beyondHistogram;
+
+		synchronized void add(long paise) {
+			count++;
+			sumPaise += paise;
+			minPaise = Math.min(minPaise, paise);
+			maxPaise = Math.max(maxPaise, paise);
+
+			long rupees = paise / 100;
+			if (rupees >= MAX_HISTOGRAM_RUPEES) {
+				beyondHistogram++;
+				return;
+			}
+			if (rupees >= rupeeCounts.length) {
+				int size = rupeeCounts.length;
+				while (size <= rupees) {
+					size *= 2;
+				}
+				int[] grown = new int[Math.min(size, MAX_HISTOGRAM_RUPEES)];
+				System.arraycopy(rupeeCounts, 0, grown, 0, rupeeCounts.length);
+				rupeeCounts = grown;
+			}
+			rupeeCounts[(int) rupees]++;
+		}
+
+		/**
+		 * @return Number of fares added
+		 */
+		public synchronized long count() {
+			return count;
+		}
+
+		/**
+		 * @return Lowest fare, or null if none was added
+		 */
+		public synchronized Fare min() {
+			return count == 0 ? null : Fare.ofPaise(minPaise);
+		}
+
+		/**
+		 * @return Highest fare, or null if none was added
+		 */
+		public synchronized Fare max() {
+			return count == 0 ? null : Fare.ofPaise(maxPaise);
+		}
+
+		/**
+		 * @return Mean fare, or null if none was added
+		 */
+		public synchronized Fare mean() {
+			return count == 0 ? null : Fare.ofPaise(sumPaise / count);
+		}
+
+		/**
+		 * Nearest-rank percentile, exact to the rupee.
+		 *
+		 * @param percent Percentile between 0 and 100 (e.g., 50 for the median)
+		 * @return Fare at that percentile, or null if none was added
+		 */
+		public synchronized Fare percentile(double percent) {
+			if (percent < 0 || percent > 100) {
+				throw new IllegalArgumentException("Percentile out of range: " + percent);
+			}
+			if (count == 0) {
+				return null;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+			long seen = 0;
+			for (int rupees = 0; rupees < rupeeCounts.length; rupees++) {
+				seen += rupeeCounts[rupees];
+				if (seen >= rank) {
+					long paise = Math.max(minPaise, Math.min(maxPaise, rupees * 100L));
+					return Fare.ofPaise(paise);
+				}
+			}
+			// The rank falls among the fares kept out of the histogram
+			return Fare.ofPaise(maxPaise);
+		}
+
+		@Override
+		public synchronized String toString() {
+			if (count == 0) {
+				return "no fares";
+			}
+			return count + " fares, min " + min() + ", p50 " + percentile(50) + ", p95 " + percentile(95) + ", max "
+					+ max();
+		}
+	}
+}
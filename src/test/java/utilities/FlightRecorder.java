@@ -0,0 +1,198 @@
+package utilities;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Per-scenario flight recorder. After every step a lightweight snapshot is
+ * kept in memory: screenshot bytes, URL, the start of the page's DOM and step
+ * timings. Only the last recorder.steps snapshots (config.properties, default
+ * 5) are kept, in a ring buffer owned by the scenario thread.
+ *
+ * Nothing is written while a scenario passes. When it fails (and is therefore
+ * retried or reported), {@link #dump(String)} writes the buffered history to
+ * target/flight-recorder/&lt;browser&gt;/ through the background writer of the
+ * {@link ScreenshotService}. A snapshot that cannot be taken (e.g., the
+ * browser is gone) is recorded without it instead of failing the step.
+ */
+public class FlightRecorder {
+
+	/** Base directory of the dumped histories */
+	public static final String DIR = "target/flight-recorder";
+
+	/** Reads the URL and the start of the DOM in one call */
+	private static final String SNAPSHOT_SCRIPT = "var html = document.documentElement ? document.documentElement.outerHTML : '';"
+			+ "return [location.href, html.length > arguments[0] ? html.substring(0, arguments[0]) : html];";
+
+	private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+	private static final ThreadLocal<Recording> current = new ThreadLocal<>();
+
+	private static final AtomicInteger snapshots = new AtomicInteger();
+	private static final AtomicInteger dumps = new AtomicInteger();
+
+	/**
+	 * Starts an empty recording for the scenario on the calling thread.
+	 */
+	public static void start() {
+		current.set(new Recording(Math.max(1, ConfigReader.getInt("recorder.steps", 5))));
+	}
+
+	/**
+	 * Names the snapshot the calling thread takes next, e.g. a screenshot the
+	 * step asked for. The snapshot is taken after the step as usual, so asking
+	 * for a screenshot costs no extra capture.
+	 *
+	 * @param label Name to add to the next snapshot's label
+	 */
+	public static void label(String label) {
+		Recording recording = current.get();
+		if (recording != null) {
+			recording.pendingLabel = recording.pendingLabel == null ? label : recording.pendingLabel + ", " + label;
+		}
+	}
+
+	/**
+	 * Records a snapshot of the browser after a step.
+	 *
+	 * @param driver Browser of the scenario; nothing is recorded if null
+	 * @param label  What the snapshot shows (e.g., "step 3" or a screenshot name)
+	 */
+	public static void record(WebDriver driver, String label) {
+		Recording recording = current.get();
+		if (recording == null || driver == null) {
+			return;
+		}
+		if (recording.pendingLabel != null) {
+			label = label + " (" + recording.pendingLabel + ")";
+			recording.pendingLabel = null;
+		}
+		long now = System.currentTimeMillis();
+		Snapshot snapshot = new Snapshot(label, now - recording.startMillis, now - recording.lastMillis);
+		recording.lastMillis = now;
+		try {
+			List<?> page = (List<?>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT,
+					ConfigReader.getInt("recorder.domChars", 8000));
+			snapshot.url = String.valueOf(page.get(0));
+			snapshot.dom = String.valueOf(page.get(1));
+			snapshot.png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+		} catch (WebDriverException | ClassCastException e) {
+			snapshot.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+		}
+		snapshot.captureMillis = System.currentTimeMillis() - now;
+		recording.add(snapshot);
+		snapshots.incrementAndGet();
+	}
+
+	/**
+	 * Writes the recorded history of the calling thread's scenario in the
+	 * background: one PNG and one HTML excerpt per snapshot, and a timeline.
+	 *
+	 * @param scenarioName Scenario name, used in the folder name
+	 * @return Folder the history is written to, or null if nothing was recorded
+	 */
+	public static String dump(String scenarioName) {
+		Recording recording = current.get();
+		if (recording == null || recording.ring.isEmpty()) {
+			return null;
+		}
+		File folder = new File(new File(DIR, RunContext.getBrowser()),
+				scenarioName.replaceAll("[^A-Za-z0-9._-]+", "_") + "_" + LocalDateTime.now().format(STAMP));
+		StringBuilder timeline = new StringBuilder("Last " + recording.ring.size() + " of " + recording.count
+				+ " snapshots of: " + scenarioName + System.lineSeparator());
+		int index = recording.count - recording.ring.size();
+		for (Snapshot snapshot : recording.ring) {
+			index++;
+			String prefix = String.format("%02d", index);
+			timeline.append(prefix).append("  +").append(snapshot.sinceStartMillis).append(" ms (step ")
+					.append(snapshot.stepMillis).append(" ms, snapshot ").append(snapshot.captureMillis)
+					.append(" ms)  ").append(snapshot.label).append("  ").append(snapshot.url == null ? "" : snapshot.url);
+			if (snapshot.error != null) {
+				timeline.append("  [").append(snapshot.error).append("]");
+			}
+			timeline.append(System.lineSeparator());
+			if (snapshot.png != null) {
+				ScreenshotService.write(new File(folder, prefix + ".png"), snapshot.png);
+			}
+			if (snapshot.dom != null) {
+				ScreenshotService.write(new File(folder, prefix + ".html"),
+						snapshot.dom.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		ScreenshotService.write(new File(folder, "timeline.txt"), timeline.toString().getBytes(StandardCharsets.UTF_8));
+		dumps.incrementAndGet();
+		return folder.getPath();
+	}
+
+	/**
+	 * Drops the calling thread's recording.
+	 */
+	public static void stop() {
+		current.remove();
+	}
+
+	/**
+	 * @return Snapshots taken and histories dumped over the whole run
+	 */
+	public static String report() {
+		return "Flight recorder: " + snapshots.get() + " snapshots kept in memory, " + dumps.get()
+				+ " failure histories written";
+	}
+
+	/**
+	 * Ring buffer of one scenario's snapshots.
+	 */
+	private static class Recording {
+		final int capacity;
+		final ArrayDeque<Snapshot> ring;
+		final long startMillis = System.currentTimeMillis();
+		long lastMillis = startMillis;
+		int count;
+		/** Label added to the next snapshot, see {@link FlightRecorder#label(String)} */
+		String pendingLabel;
+
+		Recording(int capacity) {
+			this.capacity = capacity;
+			this.ring = new ArrayDeque<>(capacity);
+		}
+
+		void add(Snapshot snapshot) {
+			if (ring.size() == capacity) {
+				ring.removeFirst();
+			}
+			ring.addLast(snapshot);
+			count++;
+		}
+	}
+
+	/**
+	 * What the browser showed after one step.
+	 */
+	private static class Snapshot {
+		final String label;
+		final long sinceStartMillis;
+		final long stepMillis;
+		long captureMillis;
+		String url;
+		String dom;
+		byte[] png;
+		String error;
+
+		Snapshot(String label, long sinceStartMillis, long stepMillis) {
+			this.label = label;
+			this.sinceStartMillis = sinceStartMillis;
+			this.stepMillis = stepMillis;
+		}
+	}
+}
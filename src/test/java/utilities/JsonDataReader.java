@@ -1,18 +1,16 @@
 package utilities;
 
-import java.io.FileReader;
-
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 /**
  * Utility class for reading data from JSON files.
  * Designed to extract test-specific data blocks based on scenario keys.
+ * Files are parsed once and served from the shared {@link TestDataRepository}.
  */
 public class JsonDataReader {
 
     /**
-     * Loads a JSON file and returns the object associated with a given scenario key.
+     * Returns the object associated with a given scenario key of a JSON file.
      *
      * @param scenarioKey Key that maps to the desired data block in the JSON file
      * @param fileName    Name of the JSON file located in src/test/resources/data/
@@ -20,13 +18,15 @@ public class JsonDataReader {
      * @throws RuntimeException if the file cannot be read or the key is missing
      */
     public static JsonObject getCabData(String scenarioKey, String fileName) {
+        JsonObject block;
         try {
-            FileReader reader = new FileReader("./src/test/resources/data/" + fileName);
-            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
-            return root.getAsJsonObject(scenarioKey);
+            block = TestDataRepository.json("./src/test/resources/data/" + fileName, scenarioKey);
         } catch (Exception e) {
             throw new RuntimeException("Unable to read JSON data for: " + scenarioKey, e);
         }
+        if (block == null) {
+            throw new RuntimeException("Unable to read JSON data for: " + scenarioKey);
+        }
+        return block;
     }
 }
-
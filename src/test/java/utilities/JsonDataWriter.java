@@ -1,51 +1,28 @@
 package utilities;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
 /**
  * Utility class for writing key-value data to JSON files. Supports simple flat
- * key-value writing and nested scenario-based data grouping.
+ * key-value writing and nested scenario-based data grouping. Files are written
+ * to the current browser's folder under target/results/.
+ *
+ * Values are buffered in the {@link ResultSink} of the running scenario and
+ * written once when the scenario ends, instead of re-reading and rewriting the
+ * file for every value.
  */
 public class JsonDataWriter {
 
 	/**
 	 * Writes a single key-value pair into the root level of a JSON file. If the
-	 * file already exists, it appends the new key-value pair; otherwise, it creates
-	 * a new file.
+	 * file already exists, the pair is added to it; otherwise, a new file is
+	 * created.
 	 *
 	 * @param key      The key to write
 	 * @param value    The value to associate with the key
 	 * @param fileName The name of the JSON file (relative to
-	 *                 /src/test/resources/data/)
+	 *                 target/results/&lt;browser&gt;/)
 	 */
 	public static void writeSimpleData(String key, String value, String fileName) {
-		try {
-			File file = new File("./src/test/resources/data/" + fileName);
-
-			// Load existing JSON or create a new object
-			JsonObject root = file.exists() ? JsonParser.parseReader(new FileReader(file)).getAsJsonObject()
-					: new JsonObject();
-
-			// Add key-value pair
-			root.addProperty(key, value);
-
-			// Save to file with pretty formatting
-			Gson gson = new GsonBuilder().setPrettyPrinting().create();
-			FileWriter writer = new FileWriter(file);
-			gson.toJson(root, writer);
-			writer.flush();
-			writer.close();
-		} catch (IOException e) {
-			throw new RuntimeException("Failed to write data to JSON", e);
-		}
+		ResultSink.put(fileName, key, value);
 	}
 
 	/**
@@ -55,37 +32,10 @@ public class JsonDataWriter {
 	 * @param scenarioKey The block/group name under which data is organized
 	 * @param key         The key to write inside the scenario block
 	 * @param value       The value to associate with the key
-	 * @param fileName    The JSON file name (relative to /src/test/resources/data/)
+	 * @param fileName    The JSON file name (relative to
+	 *                    target/results/&lt;browser&gt;/)
 	 */
 	public static void writeSimpleDataWithScenario(String scenarioKey, String key, String value, String fileName) {
-		try {
-			File file = new File("./src/test/resources/data/" + fileName);
-
-			// Ensure file and its parent directories exist
-			if (!file.exists()) {
-				file.getParentFile().mkdirs();
-				file.createNewFile();
-			}
-
-			// Load existing content or create a new root object
-			JsonObject root = file.length() > 0 ? JsonParser.parseReader(new FileReader(file)).getAsJsonObject()
-					: new JsonObject();
-
-			// Get existing scenario block or create a new one
-			JsonObject scenarioBlock = root.has(scenarioKey) ? root.getAsJsonObject(scenarioKey) : new JsonObject();
-
-			// Add key-value pair to scenario
-			scenarioBlock.addProperty(key, value);
-			root.add(scenarioKey, scenarioBlock);
-
-			// Save JSON back to file
-			Gson gson = new GsonBuilder().setPrettyPrinting().create();
-			FileWriter writer = new FileWriter(file);
-			gson.toJson(root, writer);
-			writer.flush();
-			writer.close();
-		} catch (IOException e) {
-			throw new RuntimeException("Failed to write data to JSON", e);
-		}
+		ResultSink.put(fileName, scenarioKey, key, value);
 	}
 }
@@ -0,0 +1,169 @@
+package utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+/**
+ * Lists the slowest locators of the page objects, measured against saved page
+ * fixtures in src/test/resources/fixtures. Every {@code @FindBy} field of the
+ * page objects and every template in {@link Locators} (with its sample
+ * arguments) is evaluated inside the browser on each fixture, so the timings
+ * show the cost of the selector itself rather than the WebDriver round trip.
+ *
+ * Usage:
+ * <ul>
+ * <li>{@code capture <name> <url> [browser]} saves the rendered page at url as
+ * fixtures/name.html, without its scripts</li>
+ * <li>{@code [browser]} times all locators on all fixtures and writes
+ * target/locator-report.txt</li>
+ * </ul>
+ */
+public class LocatorBenchmark {
+
+	static final File FIXTURES_DIR = new File("src/test/resources/fixtures");
+	static final File REPORT_FILE = new File("target/locator-report.txt");
+
+	/** Evaluations per locator and fixture; the average is reported */
+	static final int RUNS = 200;
+
+	/** Rows listed in the report */
+	static final int TOP = 25;
+
+	/** Page objects whose @FindBy fields are timed */
+	static final List<String> PAGE_OBJECTS = Arrays.asList("cabsObjectRepo.Airport", "cabsObjectRepo.Hourly",
+			"cabsObjectRepo.Outstation", "objectRepositories.Activities", "objectRepositories.GiftCards",
+			"objectRepositories.HomePage", "objectRepositories.Hotels");
+
+	/** Runs a locator strategy RUNS times and returns the average time and match count */
+	private static final String TIME_SCRIPT = "var using = arguments[0], value = arguments[1], runs = arguments[2], count = 0;"
+			+ "var query;"
+			+ "if (using === 'id') { using = 'css selector'; value = '#' + CSS.escape(value); }"
+			+ "else if (using === 'class name') { using = 'css selector'; value = '.' + CSS.escape(value); }"
+			+ "else if (using === 'name') { using = 'css selector'; value = '[name=\"' + CSS.escape(value) + '\"]'; }"
+			+ "if (using === 'xpath') { query = function() { return document.evaluate(value, document, null,"
+			+ "  XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength; }; }"
+			+ "else if (using === 'css selector') { query = function() { return document.querySelectorAll(value).length; }; }"
+			+ "else if (using === 'tag name') { query = function() { return document.getElementsByTagName(value).length; }; }"
+			+ "else { return null; }"
+			+ "var start = performance.now();"
+			+ "for (var i = 0; i < runs; i++) { count = query(); }"
+			+ "return {micros: (performance.now() - start) * 1000 / runs, count: count};";
+
+	public static void main(String[] args) throws Exception {
+		if (args.length >= 3 && args[0].equals("capture")) {
+			capture(args[1], args[2], args.length > 3 ? args[3] : "chrome");
+		} else {
+			run(args.length > 0 ? args[0] : "chrome");
+		}
+	}
+
+	/**
+	 * Saves a rendered page as a fixture. Scripts are stripped so the fixture
+	 * stays the same when it is loaded again.
+	 */
+	static void capture(String name, String url, String browser) throws IOException {
+		DriverSetup setup = new DriverSetup();
+		WebDriver driver = setup.intializeWebDriver(browser);
+		try {
+			driver.get(url);
+			new SmartWait(driver).until("LocatorBenchmark.load",
+					d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+			String html = driver.getPageSource().replaceAll("(?is)<script\\b.*?</script>", "");
+			FIXTURES_DIR.mkdirs();
+			File fixture = new File(FIXTURES_DIR, name + ".html");
+			Files.write(fixture.toPath(), html.getBytes(StandardCharsets.UTF_8));
+			System.out.println("Saved fixture " + fixture.getPath());
+		} finally {
+			setup.driverTearDown();
+		}
+	}
+
+	/**
+	 * Times every locator on every fixture and prints the slowest ones.
+	 */
+	@SuppressWarnings("unchecked")
+	static void run(String browser) throws Exception {
+		File[] fixtures = FIXTURES_DIR.listFiles((dir, name) -> name.endsWith(".html"));
+		if (fixtures == null || fixtures.length == 0) {
+			System.out.println("No fixtures in " + FIXTURES_DIR.getPath() + ", save some with: capture <name> <url>");
+			return;
+		}
+		Map<String, By> locators = locators();
+		List<String[]> rows = new ArrayList<>();
+		List<Double> times = new ArrayList<>();
+
+		DriverSetup setup = new DriverSetup();
+		WebDriver driver = setup.intializeWebDriver(browser);
+		try {
+			for (File fixture : fixtures) {
+				driver.get(fixture.toURI().toString());
+				for (Map.Entry<String, By> e : locators.entrySet()) {
+					if (!(e.getValue() instanceof By.Remotable)) {
+						continue;
+					}
+					By.Remotable.Parameters params = ((By.Remotable) e.getValue()).getRemoteParameters();
+					Map<String, Object> timing = (Map<String, Object>) ((JavascriptExecutor) driver)
+							.executeScript(TIME_SCRIPT, params.using(), params.value(), RUNS);
+					if (timing == null) {
+						continue;
+					}
+					double micros = ((Number) timing.get("micros")).doubleValue();
+					times.add(micros);
+					rows.add(new String[] { fixture.getName(), e.getKey(), params.using(),
+							String.format("%.1f", micros), String.valueOf(timing.get("count")) });
+				}
+			}
+		} finally {
+			setup.driverTearDown();
+		}
+
+		Integer[] order = new Integer[rows.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(times.get(b), times.get(a)));
+
+		StringBuilder sb = new StringBuilder("Slowest locators (fixture, locator, strategy, avg us, matches)");
+		for (int i = 0; i < Math.min(TOP, order.length); i++) {
+			sb.append(System.lineSeparator()).append("  ").append(String.join(", ", rows.get(order[i])));
+		}
+		String report = sb.toString();
+		System.out.println(report);
+		REPORT_FILE.getParentFile().mkdirs();
+		Files.write(REPORT_FILE.toPath(), report.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Collects the @FindBy fields of the page objects and the registered
+	 * templates, keyed by "Page.field" and template name.
+	 */
+	static Map<String, By> locators() throws ClassNotFoundException {
+		Map<String, By> locators = new LinkedHashMap<>();
+		for (String className : PAGE_OBJECTS) {
+			Class<?> page = Class.forName(className);
+			for (Field field : page.getDeclaredFields()) {
+				if (field.isAnnotationPresent(FindBy.class)) {
+					locators.put(page.getSimpleName() + "." + field.getName(), new Annotations(field).buildBy());
+				}
+			}
+		}
+		for (LocatorTemplate template : Locators.all()) {
+			locators.put(template.getName(), template.sample());
+		}
+		return locators;
+	}
+}
@@ -0,0 +1,95 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.By;
+
+/**
+ * Parameterised locator registered in {@link Locators}. The pattern uses %s
+ * placeholders and each distinct set of arguments is built into a {@link By}
+ * once and reused, instead of concatenating a new XPath on every call.
+ */
+public class LocatorTemplate {
+
+	/** Locator strategy of a template */
+	public enum Strategy {
+		CSS, XPATH
+	}
+
+	private final String name;
+	private final Strategy strategy;
+	private final String pattern;
+	private final Object[] sampleArgs;
+	private final Map<List<Object>, By> cache = new ConcurrentHashMap<>();
+
+	LocatorTemplate(String name, Strategy strategy, String pattern, Object... sampleArgs) {
+		this.name = name;
+		this.strategy = strategy;
+		this.pattern = pattern;
+		this.sampleArgs = sampleArgs;
+	}
+
+	/**
+	 * Builds the locator for the given arguments, or returns the one built before.
+	 *
+	 * @param args Values for the %s placeholders
+	 * @return Cached By for these arguments
+	 * @throws IllegalArgumentException if an argument contains a quote, which
+	 *                                  would break out of the pattern's literal
+	 */
+	public By by(Object... args) {
+		return cache.computeIfAbsent(Arrays.asList(args), key -> {
+			for (Object arg : args) {
+				String value = String.valueOf(arg);
+				if (value.indexOf('\'') >= 0 || value.indexOf('"') >= 0) {
+					throw new IllegalArgumentException(name + ": quotes are not allowed in locator arguments: " + value);
+				}
+			}
+			String selector = String.format(pattern, args);
+			return strategy == Strategy.CSS ? By.cssSelector(selector) : By.xpath(selector);
+		});
+	}
+
+	/**
+	 * @return Locator built from the sample arguments, used for benchmarking
+	 */
+	public By sample() {
+		return by(sampleArgs);
+	}
+
+	/**
+	 * @return Registry name of the template (e.g., "Cab.hour")
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Locator strategy of the template
+	 */
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return Pattern with %s placeholders
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return Number of distinct locators built so far
+	 */
+	public int cachedCount() {
+		return cache.size();
+	}
+
+	@Override
+	public String toString() {
+		return name + " -> " + strategy + ": " + pattern;
+	}
+}
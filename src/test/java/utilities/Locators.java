@@ -0,0 +1,75 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import utilities.LocatorTemplate.Strategy;
+
+/**
+ * Central registry of the dynamic locators used by the page objects. Static
+ * elements stay on {@code @FindBy} fields; locators that depend on test data
+ * (a calendar day) are declared here once as templates whose built
+ * {@link org.openqa.selenium.By} instances are cached.
+ *
+ * CSS is preferred wherever the match does not depend on element text; XPath
+ * is only used for text matches. Each template carries sample arguments so
+ * {@link LocatorBenchmark} can time it against saved page fixtures.
+ */
+public class Locators {
+
+	private static final Map<String, LocatorTemplate> registry = new ConcurrentHashMap<>();
+
+	/** Selectable day of the jQuery UI calendar used by the cab pages */
+	public static final LocatorTemplate CALENDAR_DAY = xpath("Calendar.day", "//td[@data-handler='selectDay']/a[normalize-space()='%s']", 15);
+
+	/** Day of the activities calendar */
+	public static final LocatorTemplate ACTIVITIES_DAY = xpath("Activities.day", "//table//tbody//tr//td//span[normalize-space()='%s']", 15);
+
+	/**
+	 * Registers an XPath template, or returns the one already registered under the
+	 * name.
+	 *
+	 * @param name       Registry name
+	 * @param pattern    XPath with %s placeholders
+	 * @param sampleArgs Arguments used when benchmarking the template
+	 * @return Registered template
+	 */
+	public static LocatorTemplate xpath(String name, String pattern, Object... sampleArgs) {
+		return register(new LocatorTemplate(name, Strategy.XPATH, pattern, sampleArgs));
+	}
+
+	/**
+	 * Registers a CSS template, or returns the one already registered under the
+	 * name.
+	 *
+	 * @param name       Registry name
+	 * @param pattern    CSS selector with %s placeholders
+	 * @param sampleArgs Arguments used when benchmarking the template
+	 * @return Registered template
+	 */
+	public static LocatorTemplate css(String name, String pattern, Object... sampleArgs) {
+		return register(new LocatorTemplate(name, Strategy.CSS, pattern, sampleArgs));
+	}
+
+	/**
+	 * @return Every registered template
+	 */
+	public static Collection<LocatorTemplate> all() {
+		return Collections.unmodifiableCollection(new ArrayList<>(registry.values()));
+	}
+
+	private static LocatorTemplate register(LocatorTemplate template) {
+		LocatorTemplate existing = registry.putIfAbsent(template.getName(), template);
+		if (existing == null) {
+			return template;
+		}
+		if (!existing.getPattern().equals(template.getPattern())) {
+			throw new IllegalStateException("Locator " + template.getName() + " is already registered as "
+					+ existing.getPattern());
+		}
+		return existing;
+	}
+}
@@ -0,0 +1,120 @@
+package utilities;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * Counts page states of a browser session. The epoch of a session moves on
+ * after every command that can change the page: navigation, clicks, typing,
+ * scripts, actions and frame or window switches. Reads such as findElement,
+ * getText or isDisplayed leave it unchanged, so an element resolved in the
+ * current epoch can be reused until the next page-changing command.
+ *
+ * The listener also counts the commands each session executed, so
+ * {@link RunHistory} can record how many commands a step needed. Calls that
+ * never reach the browser (manage(), navigate(), switchTo(), unwrapping) are
+ * not counted.
+ *
+ * Sessions are tracked by decorating them with an {@link EventFiringDecorator};
+ * {@link DriverPool} does this for every session it launches.
+ */
+public class PageEpoch implements WebDriverListener {
+
+	/** Commands that only read from the page */
+	private static final Set<String> READ_ONLY = new HashSet<>(Arrays.asList("findElement", "findElements",
+			"getText", "getAttribute", "getDomAttribute", "getDomProperty", "getCssValue", "getTagName", "isDisplayed",
+			"isEnabled", "isSelected", "getLocation", "getSize", "getRect", "getAccessibleName", "getAriaRole",
+			"getShadowRoot", "getScreenshotAs", "getCurrentUrl", "getTitle", "getPageSource", "getWindowHandle",
+			"getWindowHandles", "getCookies", "getCookieNamed", "manage", "navigate", "switchTo", "timeouts",
+			"window", "getCapabilities", "getSessionId", "getWrappedDriver", "getWrappedElement", "getId",
+			"toString", "hashCode", "equals"));
+
+	/** Calls answered by the decorator or the client without a browser command */
+	private static final Set<String> LOCAL = new HashSet<>(Arrays.asList("manage", "navigate", "switchTo",
+			"timeouts", "window", "getCapabilities", "getSessionId", "getWrappedDriver", "getWrappedElement", "getId",
+			"toString", "hashCode", "equals"));
+
+	/** Tracked sessions, keyed by the decorated driver handed out to the tests */
+	private static final Map<WebDriver, PageEpoch> tracked = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	private final AtomicLong epoch = new AtomicLong();
+	private final AtomicLong commands = new AtomicLong();
+
+	private PageEpoch() {
+	}
+
+	/**
+	 * Decorates a session so its page epoch is tracked.
+	 *
+	 * @param driver Undecorated session
+	 * @return Decorated session to hand out instead of the original
+	 */
+	public static WebDriver track(WebDriver driver) {
+		PageEpoch listener = new PageEpoch();
+		WebDriver decorated = new EventFiringDecorator<WebDriver>(listener).decorate(driver);
+		tracked.put(decorated, listener);
+		return decorated;
+	}
+
+	/**
+	 * Stops tracking a session, e.g. when it is quit.
+	 *
+	 * @param driver Decorated session returned by {@link #track(WebDriver)}
+	 */
+	public static void untrack(WebDriver driver) {
+		tracked.remove(driver);
+	}
+
+	/**
+	 * Returns the current page epoch of a session.
+	 *
+	 * @param driver Decorated session returned by {@link #track(WebDriver)}
+	 * @return Current epoch, or -1 if the session is not tracked
+	 */
+	public static long of(WebDriver driver) {
+		PageEpoch listener = tracked.get(driver);
+		return listener == null ? -1 : listener.epoch.get();
+	}
+
+	/**
+	 * Returns how many browser commands a session has executed so far.
+	 *
+	 * @param driver Decorated session returned by {@link #track(WebDriver)}
+	 * @return Command count, or -1 if the session is not tracked
+	 */
+	public static long commands(WebDriver driver) {
+		PageEpoch listener = tracked.get(driver);
+		return listener == null ? -1 : listener.commands.get();
+	}
+
+	@Override
+	public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+		String name = method.getName();
+		if (!LOCAL.contains(name)) {
+			commands.incrementAndGet();
+		}
+		if (!READ_ONLY.contains(name)) {
+			epoch.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A failed command may still have changed the page (e.g., a click that
+	 * navigated before timing out), so it moves the epoch on as well.
+	 */
+	@Override
+	public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+		afterAnyCall(target, method, args, null);
+	}
+}
@@ -0,0 +1,104 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Extracts a whole result list with a single executeScript call instead of one
+ * findElement/getText round trip per cell. The XPaths are evaluated inside the
+ * browser and only the texts travel back over the wire, which keeps the cost
+ * of a results page constant on remote grids.
+ */
+public class ResultExtractor {
+
+	/** Evaluates the row XPath, then each field XPath relative to every row */
+	private static final String ROWS_SCRIPT = "var rows = document.evaluate(arguments[0], document, null,"
+			+ " XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), fields = arguments[1], out = [];"
+			+ "for (var i = 0; i < rows.snapshotLength; i++) {"
+			+ "  var row = rows.snapshotItem(i), values = {}, attrs = {};"
+			+ "  for (var key in fields) {"
+			+ "    var n = document.evaluate(fields[key], row, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+			+ "    values[key] = n ? (n.innerText || n.textContent || '').trim() : null;"
+			+ "  }"
+			+ "  for (var j = 0; j < row.attributes.length; j++) { attrs[row.attributes[j].name] = row.attributes[j].value; }"
+			+ "  out.push({fields: values, attributes: attrs});"
+			+ "}"
+			+ "return out;";
+
+	/** Evaluates each column XPath and returns the texts of all its matches */
+	private static final String COLUMNS_SCRIPT = "var columns = arguments[0], out = {};"
+			+ "for (var key in columns) {"
+			+ "  var snap = document.evaluate(columns[key], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), texts = [];"
+			+ "  for (var i = 0; i < snap.snapshotLength; i++) {"
+			+ "    var n = snap.snapshotItem(i);"
+			+ "    texts.push((n.innerText || n.textContent || '').trim());"
+			+ "  }"
+			+ "  out[key] = texts;"
+			+ "}"
+			+ "return out;";
+
+	/**
+	 * Extracts one typed row per element matching the row XPath.
+	 *
+	 * @param driver      WebDriver of the results page
+	 * @param rowXpath    XPath matching each result row
+	 * @param fieldXpaths Field name to XPath relative to the row (e.g., ".//h6")
+	 * @return Rows in page order
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<ResultRow> extractRows(WebDriver driver, String rowXpath, Map<String, String> fieldXpaths) {
+		Object result = ((JavascriptExecutor) driver).executeScript(ROWS_SCRIPT, rowXpath, fieldXpaths);
+		List<ResultRow> rows = new ArrayList<>();
+		if (!(result instanceof List)) {
+			return rows;
+		}
+		for (Object item : (List<Object>) result) {
+			Map<String, Object> raw = (Map<String, Object>) item;
+			rows.add(new ResultRow(toStrings((Map<String, Object>) raw.get("fields")),
+					toStrings((Map<String, Object>) raw.get("attributes"))));
+		}
+		return rows;
+	}
+
+	/**
+	 * Extracts the texts of several independent lists in one call, e.g. a list of
+	 * names and a list of prices.
+	 *
+	 * @param driver       WebDriver of the results page
+	 * @param columnXpaths Column name to XPath matching every cell of the column
+	 * @return Column name to the texts of its cells, in page order
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, List<String>> extractColumns(WebDriver driver, Map<String, String> columnXpaths) {
+		Object result = ((JavascriptExecutor) driver).executeScript(COLUMNS_SCRIPT, columnXpaths);
+		Map<String, List<String>> columns = new LinkedHashMap<>();
+		Map<String, Object> raw = result instanceof Map ? (Map<String, Object>) result : Collections.emptyMap();
+		for (String key : columnXpaths.keySet()) {
+			List<String> texts = new ArrayList<>();
+			Object values = raw.get(key);
+			if (values instanceof List) {
+				for (Object value : (List<Object>) values) {
+					texts.add(value == null ? "" : value.toString());
+				}
+			}
+			columns.put(key, texts);
+		}
+		return columns;
+	}
+
+	private static Map<String, String> toStrings(Map<String, Object> raw) {
+		Map<String, String> values = new LinkedHashMap<>();
+		if (raw != null) {
+			for (Map.Entry<String, Object> e : raw.entrySet()) {
+				values.put(e.getKey(), e.getValue() == null ? null : e.getValue().toString());
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,66 @@
+package utilities;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One row of a search result list as returned by {@link ResultExtractor}: the
+ * trimmed text of each requested field plus the attributes of the row element.
+ */
+public class ResultRow {
+	private final Map<String, String> fields;
+	private final Map<String, String> attributes;
+
+	/**
+	 * @param fields     Field name to text value (null when the field is missing)
+	 * @param attributes Attribute name to value of the row element
+	 */
+	public ResultRow(Map<String, String> fields, Map<String, String> attributes) {
+		this.fields = Collections.unmodifiableMap(fields);
+		this.attributes = Collections.unmodifiableMap(attributes);
+	}
+
+	/**
+	 * @param field Field name given to the extractor
+	 * @return Trimmed text of the field, or null if the row has no such element
+	 */
+	public String get(String field) {
+		return fields.get(field);
+	}
+
+	/**
+	 * @param field Field name given to the extractor
+	 * @return true if the row contains the field and its text is not empty
+	 */
+	public boolean has(String field) {
+		String value = fields.get(field);
+		return value != null && !value.isEmpty();
+	}
+
+	/**
+	 * @param name Attribute name of the row element (e.g., "class")
+	 * @return Attribute value, or null if the row element does not have it
+	 */
+	public String getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	/**
+	 * @return Every field of the row
+	 */
+	public Map<String, String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return Every attribute of the row element
+	 */
+	public Map<String, String> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public String toString() {
+		return fields.toString();
+	}
+}
@@ -0,0 +1,232 @@
+package utilities;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Collects the result values of the running scenario. Values are kept per
+ * thread, so parallel scenarios never see each other's results.
+ *
+ * Values for a ".json" file are buffered in the order they arrive and written
+ * once, when the scenario ends: the file is read at most once per flush,
+ * merged with the buffered values and replaced atomically (temp file plus
+ * rename), so readers never see a half-written file. A key that is put more
+ * than once in the same scenario (e.g., two vehicles with the same name) keeps
+ * all its values, as a JSON array; a value from an earlier flush is replaced.
+ *
+ * A ".jsonl" file is streamed: every value is appended as one line when it is
+ * put, through a writer that stays open until the scenario ends, and the
+ * existing content is never read, so very large outputs take no memory.
+ * Files live in the scenario's result shard (see
+ * {@link RunContext#resultFile(String)}), which no other thread writes, so
+ * writing needs no locks.
+ *
+ * Usage: {@code ResultSink.put("OutstationWrite.json", scenario, name, price);}
+ * and {@code ResultSink.flush();} at the end of the scenario.
+ */
+public class ResultSink {
+
+	private static final Logger log = LogManager.getLogger(ResultSink.class);
+
+	/** File name to buffered rows (block, key, value) of ".json" files, per scenario thread */
+	private static final ThreadLocal<Map<String, List<String[]>>> buffers = ThreadLocal
+			.withInitial(LinkedHashMap::new);
+
+	/** Open ".jsonl" files of the scenario thread */
+	private static final ThreadLocal<Map<String, Writer>> streams = ThreadLocal.withInitial(LinkedHashMap::new);
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final Gson COMPACT = new Gson();
+
+	/**
+	 * Buffers a key-value pair for the root level of a result file.
+	 *
+	 * @param fileName Result file name (".json" or ".jsonl")
+	 * @param key      Key to write
+	 * @param value    Value of the key
+	 */
+	public static void put(String fileName, String key, String value) {
+		put(fileName, "", key, value);
+	}
+
+	/**
+	 * Buffers a key-value pair inside a block of a ".json" result file, or
+	 * appends it to a ".jsonl" file.
+	 *
+	 * @param fileName Result file name (".json" or ".jsonl")
+	 * @param block    Block the pair belongs to (e.g., the scenario name)
+	 * @param key      Key to write
+	 * @param value    Value of the key
+	 * @throws RuntimeException if a ".jsonl" file cannot be written
+	 */
+	public static void put(String fileName, String block, String key, String value) {
+		if (fileName.endsWith(".jsonl")) {
+			appendLine(fileName, block, key, value);
+		} else {
+			buffers.get().computeIfAbsent(fileName, f -> new ArrayList<>()).add(new String[] { block, key, value });
+		}
+	}
+
+	/**
+	 * Writes everything the calling thread has buffered, closes its ".jsonl"
+	 * files and clears the buffer. The buffer is cleared even if a file cannot be
+	 * written.
+	 *
+	 * @throws RuntimeException if a result file cannot be written
+	 */
+	public static void flush() {
+		Map<String, List<String[]>> files = buffers.get();
+		buffers.remove();
+		try {
+			closeStreams();
+		} finally {
+			for (Map.Entry<String, List<String[]>> entry : files.entrySet()) {
+				File file = RunContext.resultFile(entry.getKey());
+				try {
+					mergeJson(file, entry.getValue());
+				} catch (IOException e) {
+					throw new RuntimeException("Failed to write results to " + file, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drops the calling thread's buffer without writing it. Lines already
+	 * appended to ".jsonl" files stay.
+	 */
+	public static void discard() {
+		buffers.remove();
+		try {
+			closeStreams();
+		} catch (RuntimeException e) {
+			log.warn(e.getMessage());
+		}
+	}
+
+	/**
+	 * Appends one compact JSON object: {"block": ..., "key": ..., "value": ...},
+	 * or without "block" for root values.
+	 */
+	private static void appendLine(String fileName, String block, String key, String value) {
+		JsonObject line = new JsonObject();
+		if (!block.isEmpty()) {
+			line.addProperty("block", block);
+		}
+		line.addProperty("key", key);
+		line.addProperty("value", value);
+		File file = RunContext.resultFile(fileName);
+		try {
+			Writer writer = streams.get().get(fileName);
+			if (writer == null) {
+				writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+						StandardOpenOption.APPEND);
+				streams.get().put(fileName, writer);
+			}
+			writer.write(COMPACT.toJson(line));
+			writer.write('\n');
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to write results to " + file, e);
+		}
+	}
+
+	/** Closes the calling thread's ".jsonl" files, all of them even if one fails */
+	private static void closeStreams() {
+		Map<String, Writer> open = streams.get();
+		streams.remove();
+		IOException failure = null;
+		for (Writer writer : open.values()) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw new RuntimeException("Failed to write results", failure);
+		}
+	}
+
+	/**
+	 * Reads the existing file once, adds the buffered values and replaces the
+	 * file through a temp file in the same folder.
+	 */
+	private static void mergeJson(File file, List<String[]> rows) throws IOException {
+		JsonObject root = new JsonObject();
+		if (file.length() > 0) {
+			try (Reader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+				JsonElement existing = JsonParser.parseReader(reader);
+				if (existing.isJsonObject()) {
+					root = existing.getAsJsonObject();
+				}
+			}
+		}
+		// Pairs written by this flush (block and key), and the arrays of repeated keys
+		Set<String> written = new HashSet<>();
+		Map<String, JsonArray> repeated = new HashMap<>();
+		for (String[] row : rows) {
+			String block = row[0];
+			String key = row[1];
+			JsonObject target = root;
+			if (!block.isEmpty()) {
+				JsonElement existing = root.get(block);
+				target = existing != null && existing.isJsonObject() ? existing.getAsJsonObject() : new JsonObject();
+				root.add(block, target);
+			}
+			String id = block + '\u0000' + key;
+			if (written.add(id)) {
+				target.addProperty(key, row[2]);
+				continue;
+			}
+			JsonArray values = repeated.get(id);
+			if (values == null) {
+				values = new JsonArray();
+				values.add(target.get(key));
+				target.add(key, values);
+				repeated.put(id, values);
+			}
+			values.add(row[2]);
+		}
+
+		Path destination = file.toPath();
+		Path temp = Files.createTempFile(destination.getParent(), file.getName(), ".tmp");
+		try {
+			try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				GSON.toJson(root, writer);
+			}
+			try {
+				Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
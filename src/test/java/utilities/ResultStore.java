@@ -0,0 +1,376 @@
+package utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Sharded result store. Every scenario writes its result files into a shard of
+ * its own (see {@link RunContext#resultFile(String)}), so writers never share a
+ * file and need no locks while scenarios run. Scenarios of different forked
+ * JVMs get different shards as well, since the shard name comes from the
+ * scenario, not from the thread or process running it. A retried scenario
+ * starts from an empty shard, so only its last attempt is kept.
+ *
+ * {@link #merge()} runs at the end of the suite and produces the consolidated
+ * files under target/results/&lt;browser&gt;/. Shards are merged in shard name
+ * order (feature file, then line), so the output does not depend on which
+ * thread or fork ran which scenario:
+ * <ul>
+ * <li>.json: objects are merged key by key; for the same key a later shard
+ * wins</li>
+ * <li>.txt and .jsonl: shard contents are concatenated</li>
+ * <li>.xlsx: every written cell is copied, with its fill, into one workbook;
+ * for the same cell a later shard wins. Shards are streamed and merged in row
+ * order, so workbooks of any size are merged in constant memory</li>
+ * <li>anything else: the last shard's copy is kept</li>
+ * </ul>
+ * A file written by a single shard is copied as it is.
+ * The merge can also be run on its own after forked runs with
+ * {@code java utilities.ResultStore}.
+ */
+public class ResultStore {
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+	/**
+	 * Builds the shard name of a scenario from its feature file and line, e.g.
+	 * "02_OutstationCabs.feature-L00012". Lines are zero-padded so shard names
+	 * sort in file order.
+	 *
+	 * @param featureUri URI of the scenario's feature file
+	 * @param line       Line of the scenario (or example row)
+	 * @return Shard name, safe to use as a folder name
+	 */
+	public static String shardName(URI featureUri, int line) {
+		String path = featureUri.getSchemeSpecificPart();
+		int features = path.lastIndexOf("features/");
+		if (features >= 0) {
+			path = path.substring(features + "features/".length());
+		}
+		return path.replaceAll("[^A-Za-z0-9._-]", "_") + String.format("-L%05d", line);
+	}
+
+	/**
+	 * Binds a scenario's shard to the current thread and empties it, dropping
+	 * whatever an earlier attempt of the same scenario wrote.
+	 *
+	 * @param featureUri URI of the scenario's feature file
+	 * @param line       Line of the scenario (or example row)
+	 */
+	public static void openShard(URI featureUri, int line) {
+		RunContext.setShard(shardName(featureUri, line));
+		deleteTree(RunContext.shardDir());
+	}
+
+	/**
+	 * Deletes the shards of earlier runs, for a fresh run.
+	 */
+	public static void clean() {
+		deleteTree(new File(RunContext.SHARDS_DIR));
+	}
+
+	/**
+	 * Merges the shards of every browser into target/results/&lt;browser&gt;/.
+	 *
+	 * @return Summary of the merge
+	 */
+	public static String merge() {
+		File[] browsers = new File(RunContext.SHARDS_DIR).listFiles(File::isDirectory);
+		if (browsers == null || browsers.length == 0) {
+			return "Result store: no shards to merge";
+		}
+		Arrays.sort(browsers);
+		int shardCount = 0;
+		int fileCount = 0;
+		for (File browserDir : browsers) {
+			File[] shards = browserDir.listFiles(File::isDirectory);
+			if (shards == null) {
+				continue;
+			}
+			Arrays.sort(shards);
+			shardCount += shards.length;
+
+			// Result file name -> its copies, in shard order
+			Map<String, List<File>> files = new TreeMap<>();
+			for (File shard : shards) {
+				File[] written = shard.listFiles(File::isFile);
+				if (written == null) {
+					continue;
+				}
+				for (File file : written) {
+					if (!file.getName().endsWith(".tmp")) {
+						files.computeIfAbsent(file.getName(), k -> new ArrayList<>()).add(file);
+					}
+				}
+			}
+
+			File outDir = new File(RunContext.RESULTS_DIR, browserDir.getName());
+			outDir.mkdirs();
+			for (Map.Entry<String, List<File>> entry : files.entrySet()) {
+				File out = new File(outDir, entry.getKey());
+				try {
+					mergeFile(entry.getValue(), out);
+					fileCount++;
+				} catch (IOException | RuntimeException e) {
+					System.out.println("Merge of " + out + " failed: " + e.getMessage());
+				}
+			}
+		}
+		return "Result store: merged " + shardCount + " shard(s) into " + fileCount + " result file(s)";
+	}
+
+	/**
+	 * Merges the shards left by earlier (e.g., forked) runs.
+	 *
+	 * @param args Not used
+	 */
+	public static void main(String[] args) {
+		System.out.println(merge());
+	}
+
+	private static void mergeFile(List<File> copies, File out) throws IOException {
+		String name = out.getName();
+		if (copies.size() == 1) {
+			// Nothing to merge; large streamed workbooks are never loaded
+			replace(copies.get(0).toPath(), out);
+		} else if (name.endsWith(".json")) {
+			mergeJson(copies, out);
+		} else if (name.endsWith(".txt") || name.endsWith(".jsonl")) {
+			concatenate(copies, out);
+		} else if (name.endsWith(".xlsx")) {
+			mergeWorkbooks(copies, out);
+		} else {
+			replace(copies.get(copies.size() - 1).toPath(), out);
+		}
+	}
+
+	private static void mergeJson(List<File> copies, File out) throws IOException {
+		JsonObject root = new JsonObject();
+		for (File copy : copies) {
+			if (copy.length() == 0) {
+				continue;
+			}
+			try (Reader reader = Files.newBufferedReader(copy.toPath(), StandardCharsets.UTF_8)) {
+				JsonElement element = JsonParser.parseReader(reader);
+				if (element.isJsonObject()) {
+					mergeInto(root, element.getAsJsonObject());
+				}
+			}
+		}
+		Path temp = tempFor(out);
+		try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			GSON.toJson(root, writer);
+		}
+		replace(temp, out);
+	}
+
+	private static void mergeInto(JsonObject target, JsonObject source) {
+		for (Map.Entry<String, JsonElement> entry : source.entrySet()) {
+			JsonElement existing = target.get(entry.getKey());
+			if (existing != null && existing.isJsonObject() && entry.getValue().isJsonObject()) {
+				mergeInto(existing.getAsJsonObject(), entry.getValue().getAsJsonObject());
+			} else {
+				target.add(entry.getKey(), entry.getValue().deepCopy());
+			}
+		}
+	}
+
+	private static void concatenate(List<File> copies, File out) throws IOException {
+		Path temp = tempFor(out);
+		try (OutputStream os = Files.newOutputStream(temp)) {
+			for (File copy : copies) {
+				Files.copy(copy.toPath(), os);
+			}
+		}
+		replace(temp, out);
+	}
+
+	/**
+	 * Merges the shards' workbooks sheet by sheet, in row order: every shard is
+	 * read with a streaming {@link StreamingExcelReader.SheetRows} reader, the
+	 * shard rows with the lowest row number are overlaid (later shards win for the
+	 * same cell) and the merged row goes to an SXSSF workbook. Only one row per
+	 * shard and the output's row window are in memory, however large the shards.
+	 * Styles are shared by fill, so the merged file carries one style per color
+	 * however many shards it has.
+	 */
+	private static void mergeWorkbooks(List<File> copies, File out) throws IOException {
+		List<String> sheetNames = new ArrayList<>();
+		for (File copy : copies) {
+			for (String name : StreamingExcelReader.sheetNames(copy)) {
+				if (!sheetNames.contains(name)) {
+					sheetNames.add(name);
+				}
+			}
+		}
+		SXSSFWorkbook merged = new SXSSFWorkbook(ExcelWrite.ROW_WINDOW);
+		try {
+			Map<String, CellStyle> styles = new HashMap<>();
+			for (String sheetName : sheetNames) {
+				mergeSheet(copies, sheetName, merged, styles);
+			}
+			Path temp = tempFor(out);
+			try (OutputStream os = Files.newOutputStream(temp)) {
+				merged.write(os);
+			}
+			replace(temp, out);
+		} finally {
+			// Also deletes the temp files of the flushed rows
+			merged.close();
+		}
+	}
+
+	private static void mergeSheet(List<File> copies, String sheetName, SXSSFWorkbook merged,
+			Map<String, CellStyle> styles) throws IOException {
+		List<StreamingExcelReader.SheetRows> readers = new ArrayList<>();
+		try {
+			// Next row of every shard, by row number and then shard order
+			PriorityQueue<Head> heads = new PriorityQueue<>(
+					Comparator.comparingInt((Head head) -> head.row.rowNum).thenComparingInt(head -> head.shard));
+			for (File copy : copies) {
+				StreamingExcelReader.SheetRows reader = StreamingExcelReader.SheetRows.open(copy, sheetName);
+				if (reader != null) {
+					readers.add(reader);
+					StreamingExcelReader.RawRow first = reader.next();
+					if (first != null) {
+						heads.add(new Head(readers.size() - 1, first));
+					}
+				}
+			}
+			Sheet mergedSheet = merged.createSheet(sheetName);
+			while (!heads.isEmpty()) {
+				int rowNum = heads.peek().row.rowNum;
+				Map<Integer, StreamingExcelReader.RawCell> cells = new TreeMap<>();
+				while (!heads.isEmpty() && heads.peek().row.rowNum == rowNum) {
+					Head head = heads.poll();
+					for (StreamingExcelReader.RawCell cell : head.row.cells) {
+						if (!cell.value.isEmpty() || cell.style != null) {
+							cells.put(cell.column, cell);
+						}
+					}
+					StreamingExcelReader.RawRow next = readers.get(head.shard).next();
+					if (next != null) {
+						heads.add(new Head(head.shard, next));
+					}
+				}
+				if (!cells.isEmpty()) {
+					writeRow(mergedSheet.createRow(rowNum), cells.values(), merged, styles);
+				}
+			}
+		} finally {
+			for (StreamingExcelReader.SheetRows reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private static void writeRow(Row row, Collection<StreamingExcelReader.RawCell> cells, SXSSFWorkbook merged,
+			Map<String, CellStyle> styles) {
+		for (StreamingExcelReader.RawCell cell : cells) {
+			Cell target = row.createCell(cell.column);
+			switch (cell.type) {
+			case NUMERIC:
+				target.setCellValue(Double.parseDouble(cell.value));
+				break;
+			case BOOLEAN:
+				target.setCellValue("1".equals(cell.value) || "true".equalsIgnoreCase(cell.value));
+				break;
+			case FORMULA:
+				target.setCellFormula(cell.value);
+				break;
+			case BLANK:
+				target.setBlank();
+				break;
+			default:
+				target.setCellValue(cell.value);
+			}
+			if (cell.style != null) {
+				target.setCellStyle(styles.computeIfAbsent(cell.fill(), f -> {
+					CellStyle fill = merged.createCellStyle();
+					fill.setFillForegroundColor(cell.style.getFillForegroundColor());
+					fill.setFillPattern(cell.style.getFillPattern());
+					return fill;
+				}));
+			}
+		}
+	}
+
+	/**
+	 * The next row of one shard in a sheet merge.
+	 */
+	private static class Head {
+		final int shard;
+		final StreamingExcelReader.RawRow row;
+
+		Head(int shard, StreamingExcelReader.RawRow row) {
+			this.shard = shard;
+			this.row = row;
+		}
+	}
+
+	private static Path tempFor(File out) throws IOException {
+		return Files.createTempFile(out.getParentFile().toPath(), out.getName(), ".tmp");
+	}
+
+	/**
+	 * Moves a finished file into place, atomically where the file system allows.
+	 * A source that is not a temp file is copied instead.
+	 */
+	private static void replace(Path from, File out) throws IOException {
+		Path to = out.toPath();
+		if (!from.getFileName().toString().endsWith(".tmp")) {
+			Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+			return;
+		}
+		try {
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(from);
+		}
+	}
+
+	private static void deleteTree(File folder) {
+		if (folder == null || !folder.exists()) {
+			return;
+		}
+		File[] children = folder.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteTree(child);
+			}
+		}
+		folder.delete();
+	}
+}
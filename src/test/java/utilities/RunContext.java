@@ -0,0 +1,99 @@
+package utilities;
+
+import java.io.File;
+
+/**
+ * Holds the browser of the scenario running on the current thread. When the
+ * Edge and Chrome tests of testng.xml run at the same time, result files and
+ * screenshots are kept apart by writing them into a folder per browser.
+ *
+ * While a scenario is bound to the thread, its result files go to a shard of
+ * their own under target/results/shards/&lt;browser&gt;/&lt;scenario&gt;/, so
+ * parallel scenarios never write the same file. {@link ResultStore} merges the
+ * shards into target/results/&lt;browser&gt;/ at the end of the suite.
+ */
+public class RunContext {
+
+	/** Base directory for scenario result files */
+	public static final String RESULTS_DIR = "target/results";
+
+	/** Base directory for the per-scenario result shards */
+	public static final String SHARDS_DIR = RESULTS_DIR + "/shards";
+
+	private static final ThreadLocal<String> browser = new ThreadLocal<>();
+	private static final ThreadLocal<String> shard = new ThreadLocal<>();
+
+	/**
+	 * Binds a browser name to the current scenario thread.
+	 *
+	 * @param browserName Browser name ("chrome" or "edge")
+	 */
+	public static void setBrowser(String browserName) {
+		browser.set(browserName == null ? null : browserName.toLowerCase());
+	}
+
+	/**
+	 * Returns the browser bound to the current thread.
+	 *
+	 * @return Browser name, or "default" when running outside a TestNG test
+	 */
+	public static String getBrowser() {
+		String name = browser.get();
+		return name == null ? "default" : name;
+	}
+
+	/**
+	 * Binds the result shard of a scenario to the current thread.
+	 *
+	 * @param shardName Shard name of the scenario (see
+	 *                  {@link ResultStore#shardName(java.net.URI, int)})
+	 */
+	public static void setShard(String shardName) {
+		shard.set(shardName);
+	}
+
+	/**
+	 * Returns the shard name of the scenario running on the current thread.
+	 *
+	 * @return Shard name (e.g., "02_OutstationCabs.feature-L00012"), or null when no
+	 *         scenario is bound
+	 */
+	public static String getShard() {
+		return shard.get();
+	}
+
+	/**
+	 * Returns the result shard folder of the current thread.
+	 *
+	 * @return Shard folder, or null when no scenario is bound
+	 */
+	public static File shardDir() {
+		String name = shard.get();
+		return name == null ? null : new File(new File(SHARDS_DIR, getBrowser()), name);
+	}
+
+	/**
+	 * Removes the browser and shard bindings from the current thread.
+	 */
+	public static void clear() {
+		browser.remove();
+		shard.remove();
+	}
+
+	/**
+	 * Resolves a result file inside the current scenario's shard, or inside the
+	 * current browser's result folder when no scenario is bound, creating the
+	 * folder if needed.
+	 *
+	 * @param fileName Name of the result file (e.g., "OutstationWrite.json")
+	 * @return File under the shard or target/results/&lt;browser&gt;/
+	 */
+	public static File resultFile(String fileName) {
+		File dir = shardDir();
+		if (dir == null) {
+			dir = new File(RESULTS_DIR, getBrowser());
+		}
+		dir.mkdirs();
+		return new File(dir, fileName);
+	}
+}
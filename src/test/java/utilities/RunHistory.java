@@ -0,0 +1,424 @@
+package utilities;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Keeps the timing history of every run in target/run-history/history.jsonl.
+ * Every scenario of a run becomes one compact JSON line holding the run id,
+ * browser, duration, status and WebDriver command count of the scenario and of
+ * each of its steps. The file is only ever appended to, once at the end of the
+ * suite, under a file lock so forked JVMs can share it.
+ *
+ * {@link #compare()} checks the run against a rolling baseline made of the
+ * previous history.baselineRuns runs (config.properties, default 10). A step or
+ * scenario regressed when its p50 or p95 duration grew by more than
+ * history.regressionPercent (default 50) and by at least history.minMillis
+ * (default 500 ms), or when its median command count grew by more than
+ * history.regressionPercent. Only passed samples are compared, and a key needs
+ * history.minSamples baseline samples (default 3) before it is judged. With
+ * history.failOnRegression=true a regression fails the suite.
+ *
+ * Steps are keyed by browser and step definition pattern, so the rows of a
+ * scenario outline share one key; scenarios are keyed by browser and shard name
+ * (see {@link ResultStore#shardName(java.net.URI, int)}).
+ *
+ * Usage: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=utilities.RunHistory} compares the latest recorded run
+ * with the runs before it.
+ */
+public class RunHistory {
+
+	/** Folder of the history and the regression report */
+	public static final String DIR = "target/run-history";
+
+	/** The append-only history */
+	public static final File FILE = new File(DIR, "history.jsonl");
+
+	/** Id of this run; forks of one run share it through -Dhistory.runId */
+	public static final String RUN_ID = ConfigReader.get("history.runId") != null ? ConfigReader.get("history.runId")
+			: LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+	private static final Gson GSON = new Gson();
+
+	private static final Queue<ScenarioRecord> recorded = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Timings of one scenario execution, as stored on one line of the history.
+	 */
+	public static class ScenarioRecord {
+		String run;
+		String browser;
+		String scenario;
+		String name;
+		String status;
+		long millis;
+		long commands;
+		/** Resumed from a checkpoint, so its duration covers only part of the steps */
+		boolean resumed;
+		List<StepRecord> steps = new ArrayList<>();
+
+		/** @return Id of the run the scenario ran in */
+		public String run() {
+			return run;
+		}
+
+		/** @return Shard name of the scenario */
+		public String scenario() {
+			return scenario;
+		}
+
+		/** @return Browser the scenario ran on */
+		public String browser() {
+			return browser;
+		}
+
+		/** @return Wall-clock duration of the scenario, hooks included */
+		public long millis() {
+			return millis;
+		}
+
+		/** @return true if the scenario passed */
+		public boolean passed() {
+			return "PASSED".equals(status);
+		}
+	}
+
+	/**
+	 * Timings of one step of a scenario execution.
+	 */
+	public static class StepRecord {
+		String step;
+		String status;
+		long millis;
+		long commands;
+
+		StepRecord(String step, String status, long millis, long commands) {
+			this.step = step;
+			this.status = status;
+			this.millis = millis;
+			this.commands = commands;
+		}
+	}
+
+	/**
+	 * Adds a finished scenario to this run; it is written by {@link #save()}.
+	 *
+	 * @param record Timings of the scenario
+	 */
+	static void add(ScenarioRecord record) {
+		record.run = RUN_ID;
+		recorded.add(record);
+	}
+
+	/**
+	 * Appends the scenarios of this run to the history.
+	 *
+	 * @return Summary of what was written
+	 */
+	public static String save() {
+		if (recorded.isEmpty()) {
+			return "Run history: nothing recorded";
+		}
+		StringBuilder lines = new StringBuilder();
+		int count = 0;
+		for (ScenarioRecord record : recorded) {
+			lines.append(GSON.toJson(record)).append('\n');
+			count++;
+		}
+		FILE.getParentFile().mkdirs();
+		try (FileChannel channel = FileChannel.open(FILE.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			// Held until the channel is closed, so parallel runs append whole lines
+			channel.lock();
+			ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		} catch (IOException e) {
+			return "Run history: unable to append to " + FILE + ": " + e.getMessage();
+		}
+		return "Run history: " + count + " scenarios of run " + RUN_ID + " appended to " + FILE;
+	}
+
+	/**
+	 * Reads every scenario of the history, oldest first. Lines that cannot be
+	 * parsed (e.g., cut off by a killed run) are skipped.
+	 *
+	 * @return Recorded scenarios
+	 */
+	public static List<ScenarioRecord> load() {
+		List<ScenarioRecord> records = new ArrayList<>();
+		if (!FILE.isFile()) {
+			return records;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(FILE.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				try {
+					ScenarioRecord record = GSON.fromJson(line, ScenarioRecord.class);
+					if (record != null && record.run != null) {
+						records.add(record);
+					}
+				} catch (JsonParseException e) {
+					// Partial line of an interrupted run
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("Run history: unable to read " + FILE + ": " + e.getMessage());
+		}
+		return records;
+	}
+
+	/**
+	 * Returns the scenarios of the last runs before a run, oldest first.
+	 *
+	 * @param history All recorded scenarios
+	 * @param runId   Run the baseline is for; its own scenarios are left out
+	 * @param runs    Number of previous runs to keep
+	 * @return Scenarios of the baseline runs
+	 */
+	public static List<ScenarioRecord> baseline(List<ScenarioRecord> history, String runId, int runs) {
+		List<String> ids = new ArrayList<>(runIds(history));
+		ids.remove(runId);
+		Set<String> kept = new LinkedHashSet<>(ids.subList(Math.max(0, ids.size() - runs), ids.size()));
+		List<ScenarioRecord> baseline = new ArrayList<>();
+		for (ScenarioRecord record : history) {
+			if (kept.contains(record.run)) {
+				baseline.add(record);
+			}
+		}
+		return baseline;
+	}
+
+	/**
+	 * Returns the typical duration of every scenario in the baseline runs before
+	 * this one: the median of its passed executions, or of all its executions if
+	 * it never passed. Scenarios that only ran on other browsers get their
+	 * durations from those. Executions resumed from a checkpoint are left out.
+	 *
+	 * @param browser Browser the durations are for
+	 * @return Shard name to duration in milliseconds
+	 */
+	public static Map<String, Long> scenarioMillis(String browser) {
+		Map<String, Samples> passed = new TreeMap<>();
+		Map<String, Samples> all = new TreeMap<>();
+		Map<String, Samples> otherBrowsers = new TreeMap<>();
+		for (ScenarioRecord record : baseline(load(), RUN_ID, baselineRuns())) {
+			if (record.resumed) {
+				continue;
+			}
+			Map<String, Samples> target = !browser.equals(record.browser) ? otherBrowsers
+					: record.passed() ? passed : all;
+			target.computeIfAbsent(record.scenario, k -> new Samples()).add(record.millis, record.commands);
+			if (browser.equals(record.browser) && record.passed()) {
+				all.computeIfAbsent(record.scenario, k -> new Samples()).add(record.millis, record.commands);
+			}
+		}
+		Map<String, Long> millis = new TreeMap<>();
+		for (Map<String, Samples> source : Arrays.asList(passed, all, otherBrowsers)) {
+			for (Map.Entry<String, Samples> entry : source.entrySet()) {
+				millis.putIfAbsent(entry.getKey(), entry.getValue().percentile(entry.getValue().millis, 50));
+			}
+		}
+		return millis;
+	}
+
+	/**
+	 * Compares this run with the baseline runs, prints the result to
+	 * target/run-history/regressions.txt and fails the suite on a regression if
+	 * history.failOnRegression is true.
+	 *
+	 * @return Comparison report
+	 * @throws IllegalStateException if a regression was found and
+	 *                               history.failOnRegression is true
+	 */
+	public static String compare() {
+		List<ScenarioRecord> current = new ArrayList<>(recorded);
+		return check(compare(current, baseline(load(), RUN_ID, baselineRuns())));
+	}
+
+	/**
+	 * Compares the latest run of the history with the runs before it.
+	 *
+	 * @param args Not used
+	 */
+	public static void main(String[] args) {
+		List<String> ids = new ArrayList<>(runIds(load()));
+		if (ids.isEmpty()) {
+			System.out.println("Run history: " + FILE + " is empty");
+			return;
+		}
+		String latest = ids.get(ids.size() - 1);
+		System.out.println("Run " + latest + ":");
+		System.out.println(compareRun(latest));
+	}
+
+	/**
+	 * Compares a recorded run with the runs before it, e.g. all forks of a
+	 * sharded run once they have appended their scenarios.
+	 *
+	 * @param runId Run to compare
+	 * @return Comparison report
+	 * @throws IllegalStateException if a regression was found and
+	 *                               history.failOnRegression is true
+	 */
+	public static String compareRun(String runId) {
+		List<ScenarioRecord> history = load();
+		List<ScenarioRecord> current = new ArrayList<>();
+		for (ScenarioRecord record : history) {
+			if (runId.equals(record.run)) {
+				current.add(record);
+			}
+		}
+		return check(compare(current, baseline(history, runId, baselineRuns())));
+	}
+
+	/**
+	 * Timing regressions found by a comparison, and its report.
+	 */
+	static class Comparison {
+		final List<String> regressions = new ArrayList<>();
+		final StringBuilder report = new StringBuilder();
+	}
+
+	/**
+	 * Compares the samples of a run with the baseline samples, key by key.
+	 */
+	static Comparison compare(List<ScenarioRecord> current, List<ScenarioRecord> baseline) {
+		int percent = ConfigReader.getInt("history.regressionPercent", 50);
+		int minMillis = ConfigReader.getInt("history.minMillis", 500);
+		int minSamples = ConfigReader.getInt("history.minSamples", 3);
+		Map<String, Samples> now = samples(current);
+		Map<String, Samples> before = samples(baseline);
+
+		Comparison comparison = new Comparison();
+		int judged = 0;
+		for (Map.Entry<String, Samples> entry : now.entrySet()) {
+			Samples base = before.get(entry.getKey());
+			Samples cur = entry.getValue();
+			if (base == null || base.millis.size() < minSamples || cur.millis.isEmpty()) {
+				continue;
+			}
+			judged++;
+			String key = entry.getKey();
+			regressed(comparison, key, "p50", base.percentile(base.millis, 50), cur.percentile(cur.millis, 50),
+					" ms", percent, minMillis);
+			regressed(comparison, key, "p95", base.percentile(base.millis, 95), cur.percentile(cur.millis, 95),
+					" ms", percent, minMillis);
+			regressed(comparison, key, "median commands", base.percentile(base.commands, 50),
+					cur.percentile(cur.commands, 50), " commands", percent, 1);
+		}
+		comparison.report.insert(0,
+				"Run history: " + judged + " of " + now.size() + " steps and scenarios compared with "
+						+ runIds(baseline).size() + " baseline runs, " + comparison.regressions.size()
+						+ " regressions (over " + percent + "%)" + System.lineSeparator());
+		return comparison;
+	}
+
+	private static void regressed(Comparison comparison, String key, String metric, long base, long cur, String unit,
+			int percent, int minDelta) {
+		if (cur - base >= minDelta && cur * 100 > base * (100L + percent)) {
+			String line = "REGRESSED " + key + " " + metric + " " + base + " -> " + cur + unit
+					+ (base == 0 ? "" : " (+" + (cur - base) * 100 / base + "%)");
+			comparison.regressions.add(line);
+			comparison.report.append("  ").append(line).append(System.lineSeparator());
+		}
+	}
+
+	private static String check(Comparison comparison) {
+		String report = comparison.report.toString().trim();
+		try {
+			new File(DIR).mkdirs();
+			Files.write(new File(DIR, "regressions.txt").toPath(), report.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			System.out.println("Run history: unable to write the regression report: " + e.getMessage());
+		}
+		if (!comparison.regressions.isEmpty() && Boolean.parseBoolean(ConfigReader.get("history.failOnRegression"))) {
+			throw new IllegalStateException(report);
+		}
+		return report;
+	}
+
+	/**
+	 * Passed durations and command counts of every step and scenario key.
+	 */
+	private static Map<String, Samples> samples(List<ScenarioRecord> records) {
+		Map<String, Samples> samples = new TreeMap<>();
+		for (ScenarioRecord record : records) {
+			if (record.passed() && !record.resumed) {
+				samples.computeIfAbsent(record.browser + " scenario '" + record.scenario + "'", k -> new Samples())
+						.add(record.millis, record.commands);
+			}
+			for (StepRecord step : record.steps) {
+				if ("PASSED".equals(step.status)) {
+					samples.computeIfAbsent(record.browser + " step '" + step.step + "'", k -> new Samples())
+							.add(step.millis, step.commands);
+				}
+			}
+		}
+		return samples;
+	}
+
+	private static Set<String> runIds(List<ScenarioRecord> records) {
+		Set<String> ids = new LinkedHashSet<>();
+		for (ScenarioRecord record : records) {
+			ids.add(record.run);
+		}
+		return ids;
+	}
+
+	private static int baselineRuns() {
+		return Math.max(1, ConfigReader.getInt("history.baselineRuns", 10));
+	}
+
+	/**
+	 * Samples of one key.
+	 */
+	private static class Samples {
+		final List<Long> millis = new ArrayList<>();
+		final List<Long> commands = new ArrayList<>();
+
+		void add(long duration, long commandCount) {
+			millis.add(duration);
+			if (commandCount >= 0) {
+				commands.add(commandCount);
+			}
+		}
+
+		/** Nearest-rank percentile; 0 when there are no samples */
+		long percentile(List<Long> values, double percent) {
+			if (values.isEmpty()) {
+				return 0;
+			}
+			List<Long> sorted = new ArrayList<>(values);
+			Collections.sort(sorted);
+			int rank = (int) Math.max(1, Math.ceil(percent / 100 * sorted.size()));
+			return sorted.get(rank - 1);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package utilities;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Cucumber plugin that times every scenario and step and hands the timings to
+ * {@link RunHistory}. Step durations come from Cucumber's own step results;
+ * command counts are read from the scenario's {@link PageEpoch} before and
+ * after each step. Events arrive on the scenario's thread, so the running
+ * scenario's browser session and browser name are read from there. Scenarios
+ * resumed from a {@link Checkpoint} are marked, and their restored steps
+ * recorded as RESTORED, so they do not pass for fast runs.
+ *
+ * Registered in the plugin list of {@link testRunner.TestRun}.
+ */
+public class RunHistoryPlugin implements ConcurrentEventListener {
+
+	/** Scenarios in progress, with the command count at the start of their current step */
+	private final Map<UUID, Running> running = new ConcurrentHashMap<>();
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestCaseStarted.class, this::scenarioStarted);
+		publisher.registerHandlerFor(TestStepStarted.class, this::stepStarted);
+		publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+		publisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+	}
+
+	private void scenarioStarted(TestCaseStarted event) {
+		TestCase testCase = event.getTestCase();
+		RunHistory.ScenarioRecord record = new RunHistory.ScenarioRecord();
+		record.scenario = ResultStore.shardName(testCase.getUri(), testCase.getLocation().getLine());
+		record.name = testCase.getName();
+		running.put(testCase.getId(), new Running(record, event.getInstant().toEpochMilli()));
+	}
+
+	private void stepStarted(TestStepStarted event) {
+		Running scenario = running.get(event.getTestCase().getId());
+		if (scenario != null && event.getTestStep() instanceof PickleStepTestStep) {
+			// The session is bound by the @Before hooks, which run before the first step
+			if (scenario.record.browser == null) {
+				scenario.record.browser = RunContext.getBrowser();
+			}
+			// Read per step: the checkpoint progress is gone by the time the scenario finishes
+			scenario.record.resumed |= Checkpoint.isResumed();
+			scenario.stepCommands = commands();
+		}
+	}
+
+	private void stepFinished(TestStepFinished event) {
+		Running scenario = running.get(event.getTestCase().getId());
+		if (scenario == null || !(event.getTestStep() instanceof PickleStepTestStep)) {
+			return;
+		}
+		long after = commands();
+		long commands = after < 0 || scenario.stepCommands < 0 ? -1 : after - scenario.stepCommands;
+		Duration duration = event.getResult().getDuration();
+		// Steps restored from a checkpoint did no work, so their timings are not compared
+		String status = Checkpoint.skip() ? "RESTORED" : event.getResult().getStatus().name();
+		scenario.record.resumed |= Checkpoint.isResumed();
+		scenario.record.steps.add(new RunHistory.StepRecord(((PickleStepTestStep) event.getTestStep()).getPattern(),
+				status, duration.toMillis(), commands));
+		if (commands > 0) {
+			scenario.record.commands += commands;
+		}
+	}
+
+	private void scenarioFinished(TestCaseFinished event) {
+		Running scenario = running.remove(event.getTestCase().getId());
+		if (scenario == null) {
+			return;
+		}
+		scenario.record.status = event.getResult().getStatus().name();
+		scenario.record.millis = event.getInstant().toEpochMilli() - scenario.startMillis;
+		if (scenario.record.browser == null) {
+			scenario.record.browser = "unknown";
+		}
+		RunHistory.add(scenario.record);
+	}
+
+	/**
+	 * @return Commands executed so far by the calling thread's session, or -1
+	 *         without one
+	 */
+	private static long commands() {
+		WebDriver driver = DriverPool.getDriver();
+		return driver == null ? -1 : PageEpoch.commands(driver);
+	}
+
+	/**
+	 * A scenario in progress.
+	 */
+	private static class Running {
+		final RunHistory.ScenarioRecord record;
+		final long startMillis;
+		long stepCommands = -1;
+
+		Running(RunHistory.ScenarioRecord record, long startMillis) {
+			this.record = record;
+			this.startMillis = startMillis;
+		}
+	}
+}
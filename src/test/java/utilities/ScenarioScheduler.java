@@ -0,0 +1,215 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Orders scenarios longest first (LPT scheduling) using their durations in the
+ * {@link RunHistory}. The parallel data provider hands scenarios to its worker
+ * threads in order, each free worker taking the next one, so serving the
+ * longest scenarios first keeps a slow scenario from starting last and leaves
+ * the short ones to fill the gaps at the end. With accurate estimates the
+ * makespan stays within 4/3 of the best possible split.
+ *
+ * A scenario without history is estimated from the other scenarios of its
+ * feature file, then from every known scenario, then from
+ * scheduler.defaultMillis (config.properties, default 60000). Estimated
+ * scenarios sort by their estimate like the others. Scenarios with the same
+ * estimate keep their feature-file order, so the order is deterministic.
+ *
+ * For a sharded run (shard.index/shard.count, see {@link testRunner.ShardedRun})
+ * {@link #shard} first splits the scenarios between the forked JVMs.
+ */
+public class ScenarioScheduler {
+
+	/**
+	 * Estimates the duration of each scenario from the run history.
+	 *
+	 * @param scenarios Shard names of the scenarios
+	 * @param browser   Browser the scenarios run on
+	 * @return Shard name to estimated milliseconds, in the given order
+	 */
+	public static Map<String, Long> estimates(List<String> scenarios, String browser) {
+		return estimates(scenarios, RunHistory.scenarioMillis(browser));
+	}
+
+	private static Map<String, Long> estimates(List<String> scenarios, Map<String, Long> history) {
+		long overall = median(new ArrayList<>(history.values()),
+				ConfigReader.getInt("scheduler.defaultMillis", 60_000));
+		Map<String, Long> estimates = new LinkedHashMap<>();
+		for (String scenario : scenarios) {
+			Long known = history.get(scenario);
+			if (known == null) {
+				List<Long> sameFeature = new ArrayList<>();
+				String feature = feature(scenario);
+				for (Map.Entry<String, Long> entry : history.entrySet()) {
+					if (feature(entry.getKey()).equals(feature)) {
+						sameFeature.add(entry.getValue());
+					}
+				}
+				known = median(sameFeature, overall);
+			}
+			estimates.put(scenario, known);
+		}
+		return estimates;
+	}
+
+	/**
+	 * Sorts scenarios longest first and prints the plan.
+	 *
+	 * @param items      Scenarios, in feature-file order
+	 * @param scenarioOf Shard name of a scenario
+	 * @param browser    Browser the scenarios run on
+	 * @param workers    Number of scenarios that run at the same time
+	 * @return The scenarios, longest first
+	 */
+	public static <T> List<T> longestFirst(List<T> items, Function<T, String> scenarioOf, String browser,
+			int workers) {
+		List<String> names = new ArrayList<>(items.size());
+		for (T item : items) {
+			names.add(scenarioOf.apply(item));
+		}
+		Map<String, Long> known = RunHistory.scenarioMillis(browser);
+		Map<String, Long> estimates = estimates(names, known);
+
+		List<T> ordered = new ArrayList<>(items);
+		// List.sort is stable, so equal estimates keep the feature-file order
+		ordered.sort(Comparator.comparingLong((T item) -> estimates.get(scenarioOf.apply(item))).reversed());
+
+		List<Long> fileOrder = new ArrayList<>(estimates.values());
+		List<Long> lpt = new ArrayList<>();
+		long total = 0;
+		int estimated = 0;
+		for (T item : ordered) {
+			String name = scenarioOf.apply(item);
+			lpt.add(estimates.get(name));
+			total += estimates.get(name);
+			if (!known.containsKey(name)) {
+				estimated++;
+			}
+		}
+		System.out.println("Scenario scheduler (" + browser + ", " + workers + " workers): " + items.size()
+				+ " scenarios longest first, " + estimated + " without history; predicted makespan "
+				+ makespan(lpt, workers) / 1000 + " s (feature order " + makespan(fileOrder, workers) / 1000
+				+ " s, lower bound " + total / Math.max(1, workers) / 1000 + " s)");
+		return ordered;
+	}
+
+	/**
+	 * Picks the scenarios of one shard of a sharded run. Every fork of the run
+	 * computes the same split: scenarios are taken longest first (ties by shard
+	 * name) and each goes to the shard with the least estimated work so far. The
+	 * rows of one scenario outline are spread evenly, so no shard gets more than
+	 * its share of them.
+	 *
+	 * The split only depends on the scenarios and the history before this run
+	 * (forks share the run id, see {@link RunHistory#RUN_ID}), so a fork that
+	 * finishes early and appends to the history does not change the split of the
+	 * forks that start after it.
+	 *
+	 * @param items      Scenarios, in feature-file order
+	 * @param scenarioOf Shard name of a scenario
+	 * @param outlineOf  Scenario (outline) a scenario belongs to; outline rows
+	 *                   share it
+	 * @param browser    Browser the scenarios run on
+	 * @param index      Shard to return (0-based)
+	 * @param count      Number of shards
+	 * @return The scenarios of the shard, in feature-file order
+	 */
+	public static <T> List<T> shard(List<T> items, Function<T, String> scenarioOf, Function<T, String> outlineOf,
+			String browser, int index, int count) {
+		if (index < 0 || index >= count) {
+			throw new IllegalArgumentException("shard.index must be between 0 and " + (count - 1) + ": " + index);
+		}
+		List<String> names = new ArrayList<>(items.size());
+		Map<String, Integer> outlineRows = new HashMap<>();
+		for (T item : items) {
+			names.add(scenarioOf.apply(item));
+			outlineRows.merge(outlineOf.apply(item), 1, Integer::sum);
+		}
+		Map<String, Long> estimates = estimates(names, RunHistory.scenarioMillis(browser));
+
+		List<T> ordered = new ArrayList<>(items);
+		ordered.sort(Comparator.comparingLong((T item) -> estimates.get(scenarioOf.apply(item))).reversed()
+				.thenComparing(scenarioOf));
+
+		long[] load = new long[count];
+		Map<String, int[]> outlineShards = new HashMap<>();
+		Set<T> mine = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (T item : ordered) {
+			String outline = outlineOf.apply(item);
+			int[] taken = outlineShards.computeIfAbsent(outline, k -> new int[count]);
+			int cap = (outlineRows.get(outline) + count - 1) / count;
+			int target = -1;
+			for (int shard = 0; shard < count; shard++) {
+				if (taken[shard] < cap && (target < 0 || load[shard] < load[target])) {
+					target = shard;
+				}
+			}
+			taken[target]++;
+			load[target] += estimates.get(scenarioOf.apply(item));
+			if (target == index) {
+				mine.add(item);
+			}
+		}
+
+		List<T> selected = new ArrayList<>();
+		for (T item : items) {
+			if (mine.contains(item)) {
+				selected.add(item);
+			}
+		}
+		StringBuilder loads = new StringBuilder();
+		for (long shardLoad : load) {
+			loads.append(loads.length() == 0 ? "" : ", ").append(shardLoad / 1000).append(" s");
+		}
+		System.out.println("Scenario scheduler (" + browser + "): shard " + index + " of " + count + " runs "
+				+ selected.size() + " of " + items.size() + " scenarios; estimated work per shard " + loads);
+		return selected;
+	}
+
+	/**
+	 * Simulates workers that each take the next duration as soon as they are
+	 * free.
+	 *
+	 * @param durations Durations in the order they are handed out
+	 * @param workers   Number of workers
+	 * @return Time until the last worker finishes
+	 */
+	static long makespan(List<Long> durations, int workers) {
+		PriorityQueue<Long> finish = new PriorityQueue<>();
+		for (int i = 0; i < Math.max(1, workers); i++) {
+			finish.add(0L);
+		}
+		long makespan = 0;
+		for (long duration : durations) {
+			long end = finish.poll() + duration;
+			makespan = Math.max(makespan, end);
+			finish.add(end);
+		}
+		return makespan;
+	}
+
+	/** Feature part of a shard name ("02_OutstationCabs.feature-L00012") */
+	private static String feature(String scenario) {
+		int line = scenario.lastIndexOf("-L");
+		return line < 0 ? scenario : scenario.substring(0, line);
+	}
+
+	private static long median(List<Long> values, long fallback) {
+		if (values.isEmpty()) {
+			return fallback;
+		}
+		Collections.sort(values);
+		return values.get((values.size() - 1) / 2);
+	}
+}
@@ -0,0 +1,240 @@
+package utilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+
+/**
+ * Takes screenshots without making scenario threads wait for the disk. The
+ * scenario thread only asks the browser for the PNG bytes; writing the file
+ * and the Allure attachment happens on a background writer.
+ *
+ * The writer queue holds screenshots.queue images (config.properties, default
+ * 32). When it is full the scenario thread waits for a free slot, up to
+ * screenshots.maxWaitMillis (default 10000), so a slow disk slows the run down
+ * instead of filling the heap with images; an image that still finds no slot
+ * is dropped and counted. An Allure attachment is never dropped, because the
+ * report already links to it: the scenario thread writes it itself instead.
+ * File names carry milliseconds and a run-wide
+ * sequence number, so parallel scenarios never overwrite each other's images.
+ *
+ * The Allure attachment is registered on the scenario thread, where Allure
+ * knows the running test, and only its content is written in the background.
+ * {@link #awaitPending()} must run before the Allure report is generated.
+ */
+public class ScreenshotService {
+
+	private static final Logger log = LogManager.getLogger(ScreenshotService.class);
+
+	private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+	private static final ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(
+			Math.max(1, ConfigReader.getInt("screenshots.queue", 32)));
+
+	private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue,
+			r -> {
+				Thread t = new Thread(r, "screenshot-writer");
+				t.setDaemon(true);
+				return t;
+			}, ScreenshotService::waitForSlot);
+
+	private static final AtomicLong sequence = new AtomicLong();
+	private static final AtomicInteger pending = new AtomicInteger();
+	private static final AtomicInteger captured = new AtomicInteger();
+	private static final AtomicInteger written = new AtomicInteger();
+	private static final AtomicInteger waits = new AtomicInteger();
+	private static final AtomicInteger dropped = new AtomicInteger();
+	private static final AtomicInteger writtenInline = new AtomicInteger();
+	private static final AtomicInteger failed = new AtomicInteger();
+	private static final AtomicLong captureMillis = new AtomicLong();
+	private static final AtomicLong writeMillis = new AtomicLong();
+
+	/**
+	 * Captures a screenshot and saves it under ./Screenshots/&lt;browser&gt;/ in
+	 * the background.
+	 *
+	 * @param source   Driver or element to capture
+	 * @param baseName Base name of the file (e.g., "HotelsTC")
+	 * @return Path the screenshot is being written to
+	 */
+	public static String save(TakesScreenshot source, String baseName) {
+		byte[] png = capture(source);
+		File file = uniqueFile(baseName);
+		submit(() -> {
+			file.getParentFile().mkdirs();
+			Files.write(file.toPath(), png);
+		}, false);
+		return file.getPath();
+	}
+
+	/**
+	 * Captures a screenshot and attaches it to the running Allure test; the
+	 * attachment content is written in the background, or on the calling thread
+	 * if the writer queue stays full.
+	 *
+	 * @param source Driver or element to capture
+	 * @param name   Attachment name shown in the report
+	 */
+	public static void attach(TakesScreenshot source, String name) {
+		byte[] png = capture(source);
+		AllureLifecycle lifecycle = Allure.getLifecycle();
+		String attachment = lifecycle.prepareAttachment(name, "image/png", "png");
+		submit(() -> lifecycle.writeAttachment(attachment, new ByteArrayInputStream(png)), true);
+	}
+
+	/**
+	 * Writes already captured bytes to a file in the background (e.g., a flight
+	 * recorder history).
+	 *
+	 * @param file    File to write; missing folders are created
+	 * @param content Bytes of the file
+	 */
+	public static void write(File file, byte[] content) {
+		submit(() -> {
+			file.getParentFile().mkdirs();
+			Files.write(file.toPath(), content);
+		}, false);
+	}
+
+	/**
+	 * Waits until every queued screenshot has been written.
+	 *
+	 * @param timeoutSeconds Longest time to wait
+	 * @return true if the queue was drained in time
+	 */
+	public static boolean awaitPending(long timeoutSeconds) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+		while (pending.get() > 0) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Waits up to 60 seconds for every queued screenshot to be written.
+	 *
+	 * @return true if the queue was drained in time
+	 */
+	public static boolean awaitPending() {
+		return awaitPending(60);
+	}
+
+	/**
+	 * @return Screenshot counts, average capture and write times, and how often
+	 *         the queue was full
+	 */
+	public static String report() {
+		int taken = captured.get();
+		int done = written.get();
+		return "Screenshot report: " + taken + " captured (avg " + (taken == 0 ? 0 : captureMillis.get() / taken)
+				+ " ms on the scenario thread), " + done + " written (avg "
+				+ (done == 0 ? 0 : writeMillis.get() / done) + " ms in the background), " + waits.get()
+				+ " waits for a full queue, " + writtenInline.get() + " attachments written on the scenario thread, "
+				+ dropped.get() + " dropped, " + failed.get() + " failed";
+	}
+
+	private static byte[] capture(TakesScreenshot source) {
+		long start = System.currentTimeMillis();
+		byte[] png = source.getScreenshotAs(OutputType.BYTES);
+		captureMillis.addAndGet(System.currentTimeMillis() - start);
+		captured.incrementAndGet();
+		return png;
+	}
+
+	private static File uniqueFile(String baseName) {
+		File folder = new File(ScreenshotUtil.filePath, RunContext.getBrowser());
+		return new File(folder, baseName + "_" + LocalDateTime.now().format(STAMP) + "_"
+				+ sequence.incrementAndGet() + ".png");
+	}
+
+	/**
+	 * A write to run on the background writer.
+	 */
+	@FunctionalInterface
+	private interface Write {
+		void run() throws IOException;
+	}
+
+	/**
+	 * A queued write, with whether it must happen even when no slot is free.
+	 */
+	private static class Task implements Runnable {
+		final Write write;
+		final boolean mustWrite;
+
+		Task(Write write, boolean mustWrite) {
+			this.write = write;
+			this.mustWrite = mustWrite;
+		}
+
+		@Override
+		public void run() {
+			long start = System.currentTimeMillis();
+			try {
+				write.run();
+				written.incrementAndGet();
+				writeMillis.addAndGet(System.currentTimeMillis() - start);
+			} catch (IOException | RuntimeException e) {
+				failed.incrementAndGet();
+				log.warn("Screenshot write failed: " + e.getMessage());
+			} finally {
+				pending.decrementAndGet();
+			}
+		}
+	}
+
+	private static void submit(Write write, boolean mustWrite) {
+		pending.incrementAndGet();
+		writer.execute(new Task(write, mustWrite));
+	}
+
+	/**
+	 * Backpressure: a scenario thread that finds the queue full waits for a slot
+	 * instead of writing the image itself. Only a write that must not be lost
+	 * (an Allure attachment) is run by the scenario thread when no slot frees
+	 * up.
+	 */
+	private static void waitForSlot(Runnable task, ThreadPoolExecutor executor) {
+		waits.incrementAndGet();
+		try {
+			if (executor.getQueue().offer(task, ConfigReader.getInt("screenshots.maxWaitMillis", 10_000),
+					TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (((Task) task).mustWrite) {
+			writtenInline.incrementAndGet();
+			task.run();
+			return;
+		}
+		dropped.incrementAndGet();
+		pending.decrementAndGet();
+		log.warn("Screenshot dropped: the writer queue stayed full");
+	}
+}
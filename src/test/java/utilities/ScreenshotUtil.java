@@ -1,20 +1,20 @@
 package utilities;
 
-import java.io.File;
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
-import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.io.FileHandler;
 
 /**
  * Utility class to capture screenshots from active WebDriver sessions.
- * Screenshots are saved to the ./Screenshots/ directory with timestamped
- * filenames.
+ * Screenshots are saved to the ./Screenshots/&lt;browser&gt;/ directory with
+ * timestamped, unique filenames. The file is written in the background by the
+ * {@link ScreenshotService}.
+ *
+ * Unless screenshots.onPass is true (config.properties), no screenshot is
+ * taken here: the snapshot the {@link FlightRecorder} takes after the step is
+ * labelled with the file name instead, and reaches the disk only if the
+ * scenario fails, so passing scenarios do no extra capture or screenshot I/O.
  */
 public class ScreenshotUtil {
 
@@ -23,36 +23,21 @@ public class ScreenshotUtil {
 
 	/**
 	 * Captures a screenshot of the current browser view and saves it as a PNG file.
-	 * Filenames include a timestamp for uniqueness.
+	 * Filenames include a timestamp to the millisecond and a sequence number for
+	 * uniqueness.
 	 *
 	 * @param wd       WebDriver instance (must implement TakesScreenshot)
 	 * @param fileName Desired base name for the screenshot file (timestamp will be
 	 *                 appended)
-	 * @return Absolute path to the saved screenshot
-	 * @throws IOException If file writing or screenshot capture fails
+	 * @return Path the screenshot is being written to, or null if it was left to
+	 *         the flight recorder
+	 * @throws IOException If screenshot capture fails
 	 */
 	public static String captureScreenShot(WebDriver wd, String fileName) throws IOException {
-		// Create timestamp for file uniqueness
-		DateFormat df = new SimpleDateFormat("dd-MM-yy HH-mm-ss");
-		Date date = new Date();
-
-		// Ensure screenshot directory exists
-		File folder = new File(filePath);
-		if (!folder.exists()) {
-			folder.mkdirs(); // creates the folder and any missing parent directories
-		}
-
-		// Take the screenshot
-		File src = ((TakesScreenshot) wd).getScreenshotAs(OutputType.FILE);
-		String dest = filePath + File.separator + fileName + "_" + df.format(date) + ".png";
-		File destFile = new File(dest);
-
-		// Save the screenshot file
-		try {
-			FileHandler.copy(src, destFile);
-			return dest;
-		} catch (IOException e) {
-			throw new RuntimeException("ScreenShot Capture Failed: " + e.getMessage());
+		if (!Boolean.parseBoolean(ConfigReader.get("screenshots.onPass"))) {
+			FlightRecorder.label(fileName);
+			return null;
 		}
+		return ScreenshotService.save((TakesScreenshot) wd, fileName);
 	}
 }
@@ -0,0 +1,275 @@
+package utilities;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * PageFactory locator factory that resolves {@code @FindBy} elements through
+ * {@link SmartWait} instead of the implicit wait. Each element waits for the
+ * condition declared with {@link WaitFor} (presence by default), and its wait
+ * time is recorded under "Page.field".
+ *
+ * A resolved element is reused for as long as the page is in the same
+ * {@link PageEpoch}, i.e. until the next click, navigation, typing or script.
+ * If a reused element turns out to be stale it is looked up again once.
+ * Element lists are always looked up fresh, since suggestions and results can
+ * keep arriving without any command being sent. For the same reason elements
+ * located by position (an xpath index such as
+ * {@code (//div[contains(@class,'result-item')])[1]}, or {@code :nth-child} /
+ * {@code :nth-of-type}) are not reused unless marked {@code @CacheLookup}: a
+ * page that re-renders by itself, e.g. after a sort or an XHR, keeps its epoch
+ * and may move another, still attached node into that position. Lookups performed and saved
+ * are counted per scenario thread and for the whole run.
+ *
+ * Usage: {@code SmartLocatorFactory.initElements(driver, this);}
+ */
+public class SmartLocatorFactory implements ElementLocatorFactory {
+
+	/** Lookups of the running scenario: [performed, saved] */
+	private static final ThreadLocal<long[]> scenarioLookups = ThreadLocal.withInitial(() -> new long[2]);
+
+	private static final LongAdder lookups = new LongAdder();
+	private static final LongAdder saved = new LongAdder();
+
+	/** Locators that pick an element by its position among its siblings or matches */
+	private static final Pattern POSITIONAL = Pattern
+			.compile("\\[\\s*\\d+\\s*\\]|\\[\\s*last\\(|:nth-|:first-child|:last-child");
+
+	private final WebDriver driver;
+
+	/**
+	 * @param driver WebDriver used to look up the page object's elements
+	 */
+	public SmartLocatorFactory(WebDriver driver) {
+		this.driver = driver;
+	}
+
+	/**
+	 * Initializes the {@code @FindBy} fields of a page object with proxies that
+	 * wait through {@link SmartWait}, reuse elements within a page epoch and
+	 * recover from stale cached elements.
+	 *
+	 * @param driver WebDriver of the page
+	 * @param page   Page object to initialize
+	 */
+	public static void initElements(WebDriver driver, Object page) {
+		PageFactory.initElements(new CachingFieldDecorator(new SmartLocatorFactory(driver)), page);
+	}
+
+	@Override
+	public ElementLocator createLocator(Field field) {
+		return new SmartElementLocator(driver, field);
+	}
+
+	/**
+	 * Clears the lookup counters of the calling scenario thread.
+	 */
+	public static void resetScenarioStats() {
+		scenarioLookups.remove();
+	}
+
+	/**
+	 * @return Lookups performed and saved by the calling scenario thread
+	 */
+	public static String scenarioReport() {
+		long[] counts = scenarioLookups.get();
+		return "Element lookups: " + counts[0] + " performed, " + counts[1] + " saved by the page cache";
+	}
+
+	/**
+	 * @return Lookups performed and saved over the whole run
+	 */
+	public static String report() {
+		return "Element lookup report: " + lookups.sum() + " performed, " + saved.sum() + " saved by the page cache";
+	}
+
+	private static void countLookup(boolean fromCache) {
+		long[] counts = scenarioLookups.get();
+		if (fromCache) {
+			counts[1]++;
+			saved.increment();
+		} else {
+			counts[0]++;
+			lookups.increment();
+		}
+	}
+
+	/**
+	 * Locator for a single page object field.
+	 */
+	static class SmartElementLocator implements ElementLocator {
+		private final WebDriver driver;
+		private final By by;
+		private final String label;
+		private final WaitFor.Condition condition;
+		private final SmartWait wait;
+		private final boolean shouldCache;
+		private final boolean positional;
+		private WebElement cachedElement;
+		private long cachedEpoch = -1;
+
+		SmartElementLocator(WebDriver driver, Field field) {
+			Annotations annotations = new Annotations(field);
+			this.driver = driver;
+			this.by = annotations.buildBy();
+			this.shouldCache = annotations.isLookupCached();
+			this.positional = POSITIONAL.matcher(by.toString()).find();
+			this.label = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+
+			WaitFor waitFor = field.getAnnotation(WaitFor.class);
+			this.condition = waitFor == null ? WaitFor.Condition.PRESENT : waitFor.value();
+			this.wait = waitFor == null || waitFor.timeoutSeconds() <= 0 ? new SmartWait(driver)
+					: new SmartWait(driver, Duration.ofSeconds(waitFor.timeoutSeconds()));
+		}
+
+		/**
+		 * Returns the element resolved earlier in the same page epoch (or ever, with
+		 * {@code @CacheLookup}), otherwise waits for it. Positional elements are
+		 * looked up every time.
+		 */
+		@Override
+		public WebElement findElement() {
+			long epoch = PageEpoch.of(driver);
+			if (cachedElement != null && (shouldCache || (!positional && epoch >= 0 && epoch == cachedEpoch))) {
+				countLookup(true);
+				return cachedElement;
+			}
+			WebElement element = wait.until(label, condition());
+			countLookup(false);
+			if (shouldCache || (!positional && epoch >= 0)) {
+				cachedElement = element;
+				// The lookup itself only reads, so the epoch read before it still applies
+				cachedEpoch = epoch;
+			}
+			return element;
+		}
+
+		/**
+		 * Waits for at least one matching element; an empty list is returned if none
+		 * appear within the timeout.
+		 */
+		@Override
+		public List<WebElement> findElements() {
+			countLookup(false);
+			try {
+				return wait.until(label, d -> {
+					List<WebElement> elements = d.findElements(by);
+					return elements.isEmpty() ? null : elements;
+				});
+			} catch (TimeoutException e) {
+				return Collections.emptyList();
+			}
+		}
+
+		/**
+		 * Drops the cached element.
+		 *
+		 * @return true if there was a cached element to drop
+		 */
+		boolean invalidate() {
+			boolean hadElement = cachedElement != null;
+			cachedElement = null;
+			cachedEpoch = -1;
+			return hadElement;
+		}
+
+		private ExpectedCondition<WebElement> condition() {
+			switch (condition) {
+			case VISIBLE:
+				return ExpectedConditions.visibilityOfElementLocated(by);
+			case CLICKABLE:
+				return ExpectedConditions.elementToBeClickable(by);
+			default:
+				return ExpectedConditions.presenceOfElementLocated(by);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return label + " -> " + by;
+		}
+	}
+
+	/**
+	 * Field decorator whose element proxies retry once with a fresh lookup when a
+	 * cached element has gone stale.
+	 */
+	static class CachingFieldDecorator extends DefaultFieldDecorator {
+
+		CachingFieldDecorator(ElementLocatorFactory factory) {
+			super(factory);
+		}
+
+		@Override
+		protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+			InvocationHandler handler = new StaleFallbackHandler(locator);
+			return (WebElement) Proxy.newProxyInstance(loader,
+					new Class<?>[] { WebElement.class, WrapsElement.class, Locatable.class }, handler);
+		}
+	}
+
+	/**
+	 * Invocation handler of an element proxy: resolves the element through the
+	 * locator and, if a cached element is stale, drops it and tries again.
+	 */
+	static class StaleFallbackHandler implements InvocationHandler {
+		private final ElementLocator locator;
+
+		StaleFallbackHandler(ElementLocator locator) {
+			this.locator = locator;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			WebElement element;
+			try {
+				element = locator.findElement();
+			} catch (NoSuchElementException | TimeoutException e) {
+				if ("toString".equals(method.getName())) {
+					return "Proxy element for: " + locator;
+				}
+				throw e;
+			}
+			if ("getWrappedElement".equals(method.getName())) {
+				return element;
+			}
+			try {
+				return method.invoke(element, args);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof StaleElementReferenceException && locator instanceof SmartElementLocator
+						&& ((SmartElementLocator) locator).invalidate()) {
+					try {
+						return method.invoke(locator.findElement(), args);
+					} catch (InvocationTargetException retry) {
+						throw retry.getCause();
+					}
+				}
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package utilities;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * Explicit wait engine used in place of the implicit wait. Conditions are
+ * polled with an adaptive interval: the first poll is scaled from how long the
+ * same wait usually takes, and the interval then doubles up to a ceiling, so
+ * fast elements are picked up within milliseconds and slow ones are not
+ * hammered with commands.
+ *
+ * Every wait is recorded under a label (normally Page.element), and
+ * {@link #report()} lists where the waiting time of the run went.
+ */
+public class SmartWait {
+
+	/** Shortest and longest pause between two polls */
+	private static final long MIN_POLL_MS = 25;
+	private static final long MAX_POLL_MS = 500;
+
+	private static final Map<String, WaitStats> stats = new ConcurrentHashMap<>();
+
+	private final WebDriver driver;
+	private final Duration timeout;
+
+	/**
+	 * Creates a wait using the wait.timeoutSeconds value from config.properties.
+	 *
+	 * @param driver WebDriver to poll
+	 */
+	public SmartWait(WebDriver driver) {
+		this(driver, Duration.ofSeconds(ConfigReader.getInt("wait.timeoutSeconds", 10)));
+	}
+
+	/**
+	 * Creates a wait with an explicit timeout.
+	 *
+	 * @param driver  WebDriver to poll
+	 * @param timeout Maximum time to wait for a condition
+	 */
+	public SmartWait(WebDriver driver, Duration timeout) {
+		this.driver = driver;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Polls a condition until it returns a non-null, non-false value. Missing and
+	 * stale elements are treated as "not yet".
+	 *
+	 * @param label     Name the wait is recorded under
+	 * @param condition Condition to evaluate, e.g. an ExpectedCondition
+	 * @return The condition's value
+	 * @throws TimeoutException if the condition is not met within the timeout
+	 */
+	public <T> T until(String label, Function<? super WebDriver, T> condition) {
+		T value = poll(label, condition, timeout);
+		if (value == null) {
+			throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + label);
+		}
+		return value;
+	}
+
+	/**
+	 * Waits for an element to be present in the DOM.
+	 *
+	 * @param label Name the wait is recorded under
+	 * @param by    Locator of the element
+	 * @return The located element
+	 */
+	public WebElement present(String label, By by) {
+		return until(label, ExpectedConditions.presenceOfElementLocated(by));
+	}
+
+	/**
+	 * Waits for an element to be visible.
+	 *
+	 * @param label Name the wait is recorded under
+	 * @param by    Locator of the element
+	 * @return The visible element
+	 */
+	public WebElement visible(String label, By by) {
+		return until(label, ExpectedConditions.visibilityOfElementLocated(by));
+	}
+
+	/**
+	 * Waits for an element to be visible and enabled.
+	 *
+	 * @param label Name the wait is recorded under
+	 * @param by    Locator of the element
+	 * @return The clickable element
+	 */
+	public WebElement clickable(String label, By by) {
+		return until(label, ExpectedConditions.elementToBeClickable(by));
+	}
+
+	/**
+	 * Waits for an already located element to be visible and enabled.
+	 *
+	 * @param label   Name the wait is recorded under
+	 * @param element Element to check
+	 * @return The clickable element
+	 */
+	public WebElement clickable(String label, WebElement element) {
+		return until(label, ExpectedConditions.elementToBeClickable(element));
+	}
+
+	/**
+	 * Looks for an element that may legitimately be absent, giving it only a
+	 * short grace period instead of the full timeout.
+	 *
+	 * @param label Name the wait is recorded under
+	 * @param by    Locator of the element
+	 * @param grace Maximum time to wait for the element to become visible
+	 * @return The visible element, or null if it did not appear in time
+	 */
+	public WebElement optional(String label, By by, Duration grace) {
+		return poll(label, ExpectedConditions.visibilityOfElementLocated(by), grace);
+	}
+
+	/**
+	 * Lists every recorded wait, slowest total first.
+	 *
+	 * @return Human readable wait report
+	 */
+	public static String report() {
+		List<Map.Entry<String, WaitStats>> entries = new ArrayList<>(stats.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue().totalNanos.sum(), a.getValue().totalNanos.sum()));
+
+		StringBuilder sb = new StringBuilder("Wait report (label: waits, total ms, avg ms, max ms, timeouts)");
+		for (Map.Entry<String, WaitStats> e : entries) {
+			WaitStats s = e.getValue();
+			long count = s.count.sum();
+			long total = s.totalNanos.sum() / 1_000_000;
+			sb.append(System.lineSeparator()).append("  ").append(e.getKey()).append(": ").append(count).append(", ")
+					.append(total).append(", ").append(count == 0 ? 0 : total / count).append(", ")
+					.append(s.maxNanos.get() / 1_000_000).append(", ").append(s.timeouts.sum());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Core polling loop shared by every wait.
+	 *
+	 * @return The condition's value, or null if it was not met within the limit
+	 */
+	private <T> T poll(String label, Function<? super WebDriver, T> condition, Duration limit) {
+		WaitStats record = stats.computeIfAbsent(label, k -> new WaitStats());
+		long start = System.nanoTime();
+		long deadline = start + limit.toNanos();
+		long pause = record.firstPollMillis();
+
+		while (true) {
+			try {
+				T value = condition.apply(driver);
+				if (value != null && !Boolean.FALSE.equals(value)) {
+					record.add(System.nanoTime() - start, false);
+					return value;
+				}
+			} catch (NoSuchElementException | StaleElementReferenceException e) {
+				// Not there yet
+			}
+
+			long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+			if (remainingMillis <= 0) {
+				record.add(System.nanoTime() - start, true);
+				return null;
+			}
+			try {
+				Thread.sleep(Math.min(pause, remainingMillis));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new TimeoutException("Interrupted while waiting for " + label, e);
+			}
+			pause = Math.min(MAX_POLL_MS, pause * 2);
+		}
+	}
+
+	/**
+	 * Timing statistics of one wait label.
+	 */
+	private static class WaitStats {
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final LongAdder timeouts = new LongAdder();
+		final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		void add(long nanos, boolean timedOut) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+			if (timedOut) {
+				timeouts.increment();
+			}
+		}
+
+		/** A quarter of the usual wait time, kept between the polling bounds */
+		long firstPollMillis() {
+			long n = count.sum();
+			long avgMillis = n == 0 ? 0 : totalNanos.sum() / n / 1_000_000;
+			return Math.max(MIN_POLL_MS, Math.min(MAX_POLL_MS, avgMillis / 4));
+		}
+	}
+}
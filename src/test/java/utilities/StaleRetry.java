@@ -0,0 +1,115 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.StaleElementReferenceException;
+
+/**
+ * Bounded retry for actions that can hit a {@link StaleElementReferenceException}
+ * while the page re-renders, such as picking an auto-suggestion. An action is
+ * retried with exponential backoff until it succeeds, its attempt budget
+ * (stale.maxAttempts) is spent or its deadline (stale.deadlineMillis) passes;
+ * the last stale exception is then rethrown instead of spinning forever.
+ *
+ * Attempts, retries and exhausted budgets are counted per call site and listed
+ * by {@link #report()}.
+ */
+public class StaleRetry {
+
+	private static final Logger log = LogManager.getLogger(StaleRetry.class);
+
+	/** First pause between two attempts and its ceiling */
+	private static final long FIRST_BACKOFF_MS = 50;
+	private static final long MAX_BACKOFF_MS = 400;
+
+	private static final Map<String, RetryStats> stats = new ConcurrentHashMap<>();
+
+	/**
+	 * Runs an action, retrying it when an element goes stale.
+	 *
+	 * @param site   Call site name the attempts are counted under
+	 * @param action Action to run
+	 */
+	public static void run(String site, Runnable action) {
+		call(site, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Evaluates an action, retrying it when an element goes stale.
+	 *
+	 * @param site   Call site name the attempts are counted under
+	 * @param action Action to evaluate
+	 * @return The action's result
+	 * @throws StaleElementReferenceException if the retry budget or deadline is
+	 *                                        exhausted
+	 */
+	public static <T> T call(String site, Supplier<T> action) {
+		int maxAttempts = ConfigReader.getInt("stale.maxAttempts", 5);
+		long deadline = System.currentTimeMillis() + ConfigReader.getInt("stale.deadlineMillis", 3000);
+		RetryStats record = stats.computeIfAbsent(site, k -> new RetryStats());
+		long backoff = FIRST_BACKOFF_MS;
+
+		for (int attempt = 1;; attempt++) {
+			record.attempts.increment();
+			try {
+				return action.get();
+			} catch (StaleElementReferenceException e) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (attempt >= maxAttempts || remaining <= 0) {
+					record.exhausted.increment();
+					log.warn("Stale element at " + site + " after " + attempt + " attempt(s), giving up");
+					throw e;
+				}
+				record.retries.increment();
+				sleep(Math.min(backoff, remaining));
+				backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+			}
+		}
+	}
+
+	/**
+	 * Lists the call sites that needed retries.
+	 *
+	 * @return Human readable retry report
+	 */
+	public static String report() {
+		List<Map.Entry<String, RetryStats>> entries = new ArrayList<>(stats.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue().retries.sum(), a.getValue().retries.sum()));
+
+		StringBuilder sb = new StringBuilder("Stale retry report (site: attempts, retries, exhausted)");
+		for (Map.Entry<String, RetryStats> e : entries) {
+			RetryStats s = e.getValue();
+			sb.append(System.lineSeparator()).append("  ").append(e.getKey()).append(": ").append(s.attempts.sum())
+					.append(", ").append(s.retries.sum()).append(", ").append(s.exhausted.sum());
+		}
+		return sb.toString();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while retrying a stale element", e);
+		}
+	}
+
+	/**
+	 * Counters of one call site.
+	 */
+	private static class RetryStats {
+		final LongAdder attempts = new LongAdder();
+		final LongAdder retries = new LongAdder();
+		final LongAdder exhausted = new LongAdder();
+	}
+}
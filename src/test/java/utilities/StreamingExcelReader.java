@@ -0,0 +1,429 @@
+package utilities;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Reads .xlsx sheets with POI's event model: the sheet XML is parsed with SAX
+ * row by row, so the workbook is never loaded into memory. Only the shared
+ * strings table and the row being read are held at a time.
+ *
+ * Rows follow the data-sheet layout used by {@link ExcelUtils}: the first row
+ * holds the headers, the first column is the row key, and every other column
+ * becomes a header/value pair (blank cells read as ""). Values are formatted
+ * like Excel shows them and trimmed.
+ *
+ * {@link #forEachRow} streams the rows to a handler, which can stop the read
+ * early; {@link #find} uses that to look up a single row without reading the
+ * rest of the sheet.
+ *
+ * {@link SheetRows} reads any sheet, not only data sheets, the other way
+ * round: the caller pulls raw rows (row number, typed cells and their fills)
+ * one at a time. Several sheets can be read side by side that way, e.g. to
+ * merge them in row order (see {@link ResultStore}).
+ */
+public class StreamingExcelReader {
+
+	/**
+	 * Receives the data rows of a sheet.
+	 */
+	@FunctionalInterface
+	public interface RowHandler {
+
+		/**
+		 * @param key    Value of the first column
+		 * @param values Header to value of the other columns
+		 * @return false to stop reading the sheet
+		 */
+		boolean row(String key, Map<String, String> values);
+	}
+
+	/**
+	 * Streams the data rows of a sheet to a handler, in sheet order. Rows with a
+	 * blank key are skipped.
+	 *
+	 * @param filePath  Path to the .xlsx file
+	 * @param sheetName Name of the sheet
+	 * @param handler   Receives every row until it returns false
+	 * @throws IOException if the file cannot be read or the sheet does not exist
+	 */
+	public static void forEachRow(String filePath, String sheetName, RowHandler handler) throws IOException {
+		try (OPCPackage pkg = OPCPackage.open(new File(filePath), PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+			StylesTable styles = reader.getStylesTable();
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					if (sheets.getSheetName().equals(sheetName)) {
+						parse(sheet, styles, strings, handler);
+						return;
+					}
+				}
+			}
+		} catch (OpenXML4JException | SAXException e) {
+			throw new IOException("Unable to read " + filePath, e);
+		}
+		throw new IOException("Sheet '" + sheetName + "' not found in " + filePath);
+	}
+
+	/**
+	 * Reads every data row of a sheet into a map. Only the resulting map is kept
+	 * in memory, not the workbook.
+	 *
+	 * @param filePath  Path to the .xlsx file
+	 * @param sheetName Name of the sheet
+	 * @return Row key to header/value pairs, in sheet order
+	 * @throws IOException if the file cannot be read or the sheet does not exist
+	 */
+	public static Map<String, Map<String, String>> readAll(String filePath, String sheetName) throws IOException {
+		Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+		forEachRow(filePath, sheetName, (key, values) -> {
+			rows.put(key, values);
+			return true;
+		});
+		return rows;
+	}
+
+	/**
+	 * Looks up one row, stopping as soon as it has been read.
+	 *
+	 * @param filePath  Path to the .xlsx file
+	 * @param sheetName Name of the sheet
+	 * @param key       Value of the row's first column
+	 * @return Header to value of the row, or null if there is no such row
+	 * @throws IOException if the file cannot be read or the sheet does not exist
+	 */
+	public static Map<String, String> find(String filePath, String sheetName, String key) throws IOException {
+		List<Map<String, String>> found = new ArrayList<>(1);
+		forEachRow(filePath, sheetName, (rowKey, values) -> {
+			if (rowKey.equals(key)) {
+				found.add(values);
+				return false;
+			}
+			return true;
+		});
+		return found.isEmpty() ? null : found.get(0);
+	}
+
+	private static void parse(InputStream sheet, StylesTable styles, ReadOnlySharedStringsTable strings,
+			RowHandler handler) throws IOException, SAXException {
+		RowCollector collector = new RowCollector(handler);
+		try {
+			XMLReader parser = XMLHelper.newXMLReader();
+			parser.setContentHandler(
+					new XSSFSheetXMLHandler(styles, null, strings, collector, new DataFormatter(), false));
+			parser.parse(new InputSource(sheet));
+		} catch (StopReading e) {
+			// The handler has what it wanted
+		} catch (ParserConfigurationException e) {
+			throw new IOException("No SAX parser available", e);
+		}
+	}
+
+	/**
+	 * Turns the cell events of the SAX handler into keyed rows.
+	 */
+	private static class RowCollector implements SheetContentsHandler {
+		private final RowHandler handler;
+		private final List<String> headers = new ArrayList<>();
+		private final List<String> cells = new ArrayList<>();
+
+		RowCollector(RowHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			cells.clear();
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int column = new CellReference(cellReference).getCol();
+			while (cells.size() <= column) {
+				cells.add("");
+			}
+			cells.set(column, formattedValue == null ? "" : formattedValue.trim());
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			if (rowNum == 0) {
+				headers.addAll(cells);
+				return;
+			}
+			if (cells.isEmpty() || cells.get(0).isEmpty()) {
+				return;
+			}
+			Map<String, String> values = new HashMap<>();
+			for (int j = 1; j < cells.size(); j++) {
+				values.put(j < headers.size() ? headers.get(j) : "", cells.get(j));
+			}
+			if (!handler.row(cells.get(0), Collections.unmodifiableMap(values))) {
+				throw new StopReading();
+			}
+		}
+	}
+
+	/**
+	 * Returns the sheet names of a workbook, in workbook order.
+	 *
+	 * @param file The .xlsx file
+	 * @return Sheet names
+	 * @throws IOException if the file cannot be read
+	 */
+	public static List<String> sheetNames(File file) throws IOException {
+		List<String> names = new ArrayList<>();
+		try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+			while (sheets.hasNext()) {
+				sheets.next().close();
+				names.add(sheets.getSheetName());
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to read " + file, e);
+		}
+		return names;
+	}
+
+	/**
+	 * A cell read by {@link SheetRows}.
+	 */
+	public static class RawCell {
+		/** Column index (0-based) */
+		public final int column;
+		/** STRING, NUMERIC, BOOLEAN, FORMULA or BLANK */
+		public final CellType type;
+		/** String value, number as written in the file, "1"/"0", or formula */
+		public final String value;
+		/** Fill of the cell's style, or null for the default style */
+		public final XSSFCellStyle style;
+
+		RawCell(int column, CellType type, String value, XSSFCellStyle style) {
+			this.column = column;
+			this.type = type;
+			this.value = value;
+			this.style = style;
+		}
+
+		/**
+		 * @return Fill color and pattern of the cell, e.g. "17/SOLID_FOREGROUND", or
+		 *         null for the default style
+		 */
+		public String fill() {
+			if (style == null) {
+				return null;
+			}
+			FillPatternType pattern = style.getFillPattern();
+			return style.getFillForegroundColor() + "/" + pattern;
+		}
+	}
+
+	/**
+	 * A row read by {@link SheetRows}.
+	 */
+	public static class RawRow {
+		/** Row index (0-based) */
+		public final int rowNum;
+		/** Cells of the row, in column order */
+		public final List<RawCell> cells = new ArrayList<>();
+
+		RawRow(int rowNum) {
+			this.rowNum = rowNum;
+		}
+	}
+
+	/**
+	 * Pull reader over the rows of one sheet. The sheet XML is read with StAX,
+	 * so only the current row, the shared strings and the styles are in memory.
+	 */
+	public static class SheetRows implements Closeable {
+		private final OPCPackage pkg;
+		private final InputStream sheet;
+		private final XMLStreamReader xml;
+		private final ReadOnlySharedStringsTable strings;
+		private final StylesTable styles;
+		private int lastRow = -1;
+
+		private SheetRows(OPCPackage pkg, InputStream sheet, ReadOnlySharedStringsTable strings, StylesTable styles)
+				throws XMLStreamException {
+			this.pkg = pkg;
+			this.sheet = sheet;
+			this.strings = strings;
+			this.styles = styles;
+			this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheet);
+		}
+
+		/**
+		 * Opens a sheet for reading.
+		 *
+		 * @param file      The .xlsx file
+		 * @param sheetName Name of the sheet
+		 * @return Reader positioned before the first row, or null if the workbook
+		 *         has no such sheet
+		 * @throws IOException if the file cannot be read
+		 */
+		public static SheetRows open(File file, String sheetName) throws IOException {
+			OPCPackage pkg;
+			try {
+				pkg = OPCPackage.open(file, PackageAccess.READ);
+			} catch (OpenXML4JException e) {
+				throw new IOException("Unable to read " + file, e);
+			}
+			try {
+				XSSFReader reader = new XSSFReader(pkg);
+				ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+				StylesTable styles = reader.getStylesTable();
+				XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+				while (sheets.hasNext()) {
+					InputStream sheet = sheets.next();
+					if (sheets.getSheetName().equals(sheetName)) {
+						return new SheetRows(pkg, sheet, strings, styles);
+					}
+					sheet.close();
+				}
+			} catch (OpenXML4JException | SAXException | XMLStreamException | IOException e) {
+				pkg.revert();
+				throw new IOException("Unable to read " + file, e);
+			}
+			pkg.revert();
+			return null;
+		}
+
+		/**
+		 * Reads the next row that has cells.
+		 *
+		 * @return The row, or null after the last row
+		 * @throws IOException if the sheet XML cannot be read
+		 */
+		public RawRow next() throws IOException {
+			try {
+				RawRow row = null;
+				int column = -1;
+				String reference = null;
+				String type = null;
+				String style = null;
+				String value = null;
+				String formula = null;
+				StringBuilder inline = null;
+				while (xml.hasNext()) {
+					int event = xml.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						String name = xml.getLocalName();
+						if ("row".equals(name)) {
+							String r = xml.getAttributeValue(null, "r");
+							lastRow = r == null ? lastRow + 1 : Integer.parseInt(r) - 1;
+							row = new RawRow(lastRow);
+							column = -1;
+						} else if ("c".equals(name)) {
+							reference = xml.getAttributeValue(null, "r");
+							type = xml.getAttributeValue(null, "t");
+							style = xml.getAttributeValue(null, "s");
+							value = null;
+							formula = null;
+							inline = null;
+						} else if ("v".equals(name)) {
+							value = xml.getElementText();
+						} else if ("f".equals(name)) {
+							formula = xml.getElementText();
+						} else if ("t".equals(name)) {
+							// Text of an inline string; rich text has several runs
+							inline = (inline == null ? new StringBuilder() : inline).append(xml.getElementText());
+						}
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						String name = xml.getLocalName();
+						if ("c".equals(name) && row != null) {
+							column = reference == null ? column + 1 : new CellReference(reference).getCol();
+							row.cells.add(cell(column, type, style, value, formula, inline));
+						} else if ("row".equals(name) && row != null && !row.cells.isEmpty()) {
+							return row;
+						}
+					}
+				}
+				return null;
+			} catch (XMLStreamException e) {
+				throw new IOException("Unable to read sheet", e);
+			}
+		}
+
+		private RawCell cell(int column, String type, String style, String value, String formula,
+				StringBuilder inline) {
+			XSSFCellStyle cellStyle = style == null || "0".equals(style) ? null
+					: styles.getStyleAt(Integer.parseInt(style));
+			if (formula != null) {
+				return new RawCell(column, CellType.FORMULA, formula, cellStyle);
+			}
+			if ("s".equals(type) && value != null) {
+				return new RawCell(column, CellType.STRING,
+						strings.getItemAt(Integer.parseInt(value)).getString(), cellStyle);
+			}
+			if ("inlineStr".equals(type)) {
+				return new RawCell(column, CellType.STRING, inline == null ? "" : inline.toString(), cellStyle);
+			}
+			if ("b".equals(type)) {
+				return new RawCell(column, CellType.BOOLEAN, value, cellStyle);
+			}
+			if (value == null) {
+				return new RawCell(column, CellType.BLANK, "", cellStyle);
+			}
+			return new RawCell(column, "str".equals(type) || "e".equals(type) ? CellType.STRING : CellType.NUMERIC,
+					value, cellStyle);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				xml.close();
+			} catch (XMLStreamException e) {
+				// The stream is closed below either way
+			} finally {
+				sheet.close();
+				pkg.revert();
+			}
+		}
+	}
+
+	/**
+	 * Ends the SAX parse once the handler has asked to stop.
+	 */
+	private static class StopReading extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		StopReading() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Shared, thread-safe cache of the test data files. Each Excel sheet, JSON or
+ * XML file is parsed once and indexed (Excel by row key, JSON by top-level
+ * key, XML by element name); later calls are served from memory. Sheets are
+ * read with the {@link StreamingExcelReader}, so a workbook is never loaded
+ * into memory as a whole.
+ * An entry is reloaded when the file's modification time or size changes, so
+ * data edited during a run is picked up.
+ *
+ * Loading goes through {@link ConcurrentHashMap#compute}, so threads asking for
+ * the same file at the same time parse it only once. The cached data is
+ * immutable (JSON blocks are handed out as copies), so it can be shared by
+ * parallel scenarios.
+ */
+public class TestDataRepository {
+
+	private static final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+	private static final LongAdder loads = new LongAdder();
+	private static final LongAdder hits = new LongAdder();
+
+	/**
+	 * Returns the rows of an Excel sheet, keyed by the first column. Each row maps
+	 * the header of every other column to the cell's formatted, trimmed value.
+	 *
+	 * @param filePath  Path to the .xlsx file
+	 * @param sheetName Name of the sheet
+	 * @return Unmodifiable map of row key to column/value pairs
+	 * @throws IOException if the file cannot be read or the sheet does not exist
+	 */
+	public static Map<String, Map<String, String>> excel(String filePath, String sheetName) throws IOException {
+		return load(filePath, "#" + sheetName,
+				file -> Collections.unmodifiableMap(StreamingExcelReader.readAll(file.getPath(), sheetName)));
+	}
+
+	/**
+	 * Returns a top-level block of a JSON file.
+	 *
+	 * @param filePath Path to the JSON file
+	 * @param key      Top-level key of the block
+	 * @return Copy of the block, or null if the key is missing
+	 * @throws IOException if the file cannot be read
+	 */
+	public static JsonObject json(String filePath, String key) throws IOException {
+		JsonObject root = load(filePath, "", TestDataRepository::readJson);
+		JsonElement block = root.get(key);
+		return block == null || !block.isJsonObject() ? null : block.getAsJsonObject().deepCopy();
+	}
+
+	/**
+	 * Returns the text of the first element with the given name in an XML file,
+	 * the same node the XPath {@code //nodeName} would select first.
+	 *
+	 * @param filePath Path to the XML file
+	 * @param nodeName Element name
+	 * @return Trimmed text content, or null if there is no such element
+	 * @throws IOException if the file cannot be read or parsed
+	 */
+	public static String xml(String filePath, String nodeName) throws IOException {
+		Map<String, String> values = load(filePath, "", TestDataRepository::readXml);
+		return values.get(nodeName);
+	}
+
+	/**
+	 * @return How often a file was parsed and how often the cache answered
+	 */
+	public static String report() {
+		return "Test data report: " + loads.sum() + " file loads, " + hits.sum() + " cache hits";
+	}
+
+	/**
+	 * Returns the cached data of a file (or of a part of it, such as a sheet),
+	 * loading it if it is not cached or the file has changed since it was loaded.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T load(String filePath, String part, Loader<T> loader) throws IOException {
+		File file = new File(filePath);
+		String key = file.getAbsolutePath() + part;
+		BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		long modified = attributes.lastModifiedTime().toMillis();
+		long size = attributes.size();
+
+		Entry current = cache.get(key);
+		if (current != null && current.matches(modified, size)) {
+			hits.increment();
+			return (T) current.data;
+		}
+		try {
+			Entry loaded = cache.compute(key, (k, existing) -> {
+				if (existing != null && existing.matches(modified, size)) {
+					return existing;
+				}
+				try {
+					T data = loader.load(file);
+					loads.increment();
+					return new Entry(modified, size, data);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			return (T) loaded.data;
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static JsonObject readJson(File file) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			JsonElement root = JsonParser.parseReader(reader);
+			if (!root.isJsonObject()) {
+				throw new IOException("Not a JSON object: " + file);
+			}
+			return root.getAsJsonObject();
+		}
+	}
+
+	/**
+	 * Indexes the text of the first element of every name, in document order.
+	 */
+	private static Map<String, String> readXml(File file) throws IOException {
+		try {
+			Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+			doc.getDocumentElement().normalize();
+			NodeList elements = doc.getElementsByTagName("*");
+			Map<String, String> values = new HashMap<>();
+			for (int i = 0; i < elements.getLength(); i++) {
+				Element element = (Element) elements.item(i);
+				values.putIfAbsent(element.getTagName(), element.getTextContent().trim());
+			}
+			return Collections.unmodifiableMap(values);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Unable to parse XML data: " + file, e);
+		}
+	}
+
+	/**
+	 * Parses a data file into its index.
+	 */
+	@FunctionalInterface
+	private interface Loader<T> {
+		T load(File file) throws IOException;
+	}
+
+	/**
+	 * Parsed data of a file, with the file state it was parsed from.
+	 */
+	private static class Entry {
+		final long modified;
+		final long size;
+		final Object data;
+
+		Entry(long modified, long size, Object data) {
+			this.modified = modified;
+			this.size = size;
+			this.data = data;
+		}
+
+		boolean matches(long modified, long size) {
+			return this.modified == modified && this.size == size;
+		}
+	}
+}
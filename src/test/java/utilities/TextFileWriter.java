@@ -7,7 +7,7 @@ import java.io.IOException;
 /**
  * Utility class for writing and clearing text files. Primarily used for logging
  * or storing test data in a readable format. Operates on files within the
- * src/test/resources/data/ directory.
+ * current browser's folder under target/results/.
  */
 public class TextFileWriter {
 
@@ -20,7 +20,7 @@ public class TextFileWriter {
 	 */
 	public static void writeToTextFile(String fileName, String content) {
 		try {
-			File file = new File("./src/test/resources/data/" + fileName);
+			File file = RunContext.resultFile(fileName);
 
 			// Create file and parent directory if they don't exist
 			if (!file.exists()) {
@@ -46,7 +46,7 @@ public class TextFileWriter {
 	 * @throws IOException if file writing or creation fails
 	 */
 	public static void clearFile(String fileName) throws IOException {
-		File file = new File("./src/test/resources/data/" + fileName);
+		File file = RunContext.resultFile(fileName);
 		file.getParentFile().mkdirs(); // Create parent directories if missing
 		file.createNewFile(); // Create file if missing
 
@@ -0,0 +1,80 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Vehicle classes that fares are grouped by in the {@link FareAggregator}.
+ * Result listings name a model ("Dzire, Etios or similar") rather than a
+ * class, so {@link #of(String)} maps a listing name to its class; every page
+ * object groups its fares through it.
+ */
+public enum VehicleClass {
+
+	HATCHBACK("Hatchback", "hatchback", "indica", "wagon", "alto", "celerio", "swift", "i10", "i20", "santro",
+			"ritz", "tiago", "kwid"),
+
+	SEDAN("Sedan", "sedan", "dzire", "etios", "amaze", "aspire", "xcent", "aura", "ciaz", "verna", "tigor", "zest"),
+
+	SUV("SUV", "suv", "muv", "innova", "crysta", "ertiga", "xylo", "scorpio", "marazzo", "carens", "xuv",
+			"enjoy", "tavera"),
+
+	TEMPO_TRAVELLER("Tempo Traveller", "tempo", "traveller", "urbania", "bus"),
+
+	OTHER("Other");
+
+	private final String label;
+	private final List<String> keywords;
+
+	VehicleClass(String label, String... keywords) {
+		this.label = label;
+		this.keywords = Arrays.asList(keywords);
+	}
+
+	/**
+	 * Maps a listing name to its vehicle class. A class named in the listing
+	 * ("SUV", "Sedan") wins over the models it lists; otherwise the largest class
+	 * of the models it lists decides, so "Swift Dzire" is a sedan.
+	 *
+	 * @param listingName Vehicle name shown in the results (may be null)
+	 * @return Vehicle class, or {@link #OTHER} if none is recognised
+	 */
+	public static VehicleClass of(String listingName) {
+		if (listingName == null) {
+			return OTHER;
+		}
+		String name = listingName.toLowerCase(Locale.ROOT);
+		for (VehicleClass vehicleClass : values()) {
+			if (!vehicleClass.keywords.isEmpty() && containsWord(name, vehicleClass.keywords.get(0))) {
+				return vehicleClass;
+			}
+		}
+		VehicleClass[] largestFirst = values();
+		for (int i = largestFirst.length - 1; i >= 0; i--) {
+			for (String keyword : largestFirst[i].keywords) {
+				if (containsWord(name, keyword)) {
+					return largestFirst[i];
+				}
+			}
+		}
+		return OTHER;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+
+	/** true if the text holds the word on its own, not as part of a longer word */
+	private static boolean containsWord(String text, String word) {
+		for (int at = text.indexOf(word); at >= 0; at = text.indexOf(word, at + 1)) {
+			int end = at + word.length();
+			if ((at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))
+					&& (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,29 @@
+package utilities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the condition a page object element must meet before it is handed
+ * out by the {@link SmartLocatorFactory}. Elements without this annotation only
+ * need to be present in the DOM.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface WaitFor {
+
+	/**
+	 * Conditions supported for page object elements.
+	 */
+	enum Condition {
+		PRESENT, VISIBLE, CLICKABLE
+	}
+
+	/** Condition to wait for */
+	Condition value() default Condition.PRESENT;
+
+	/** Timeout in seconds; 0 uses wait.timeoutSeconds from config.properties */
+	int timeoutSeconds() default 0;
+}
@@ -1,5 +1,5 @@
 
-@sanity
+@sanity @checkpoint
 Feature: Searching for Outstation Cab details on EaseMyTrip
 
 Scenario: Book Outstation with one-way trip
@@ -11,7 +11,9 @@ Feature: Search Activities on EaseMyTrip
     
     @regression
     Scenario: Selecting city, date and filtering day trips
-    Given The user enter Delhi as full city and select New Delhi
+    Given The user open the browser and navigate to EaseMyTrip
+    When The user click activity
+    And The user enter Delhi as full city and select New Delhi
     When The user click search button again
     Then The user sort results by price low to high
     And The user select Day Trips checkbox